@@ -0,0 +1,113 @@
+/**
+ * An axis-aligned bounding box stored as four doubles.
+ * Each game object owns one box and updates it in place when it moves,
+ * so collision checks never allocate. Boxes returned by {@code getBoundingBox()}
+ * belong to their object and must be treated as read-only by callers.
+ */
+public class Aabb {
+    /** Returned by {@link #timeOfImpact} when the boxes do not meet during the move. */
+    public static final double NO_HIT = Double.POSITIVE_INFINITY;
+
+    private double minX, minY, maxX, maxY;
+
+    /**
+     * Moves the box to the given top-left corner and size.
+     *
+     * @return This box, for chaining.
+     */
+    public Aabb set(double left, double top, double width, double height) {
+        this.minX = left;
+        this.minY = top;
+        this.maxX = left + width;
+        this.maxY = top + height;
+        return this;
+    }
+
+    /**
+     * Moves the box so it is centred on the given point.
+     *
+     * @return This box, for chaining.
+     */
+    public Aabb setCentered(double centreX, double centreY, double width, double height) {
+        return set(centreX - width / 2, centreY - height / 2, width, height);
+    }
+
+    public double left() {
+        return minX;
+    }
+
+    public double top() {
+        return minY;
+    }
+
+    public double right() {
+        return maxX;
+    }
+
+    public double bottom() {
+        return maxY;
+    }
+
+    /**
+     * Checks whether this box overlaps another. Boxes that only touch along an edge do not overlap.
+     *
+     * @param other The box to test against.
+     * @return {@code true} if the boxes overlap, {@code false} otherwise.
+     */
+    public boolean intersects(Aabb other) {
+        return intersects(minX, minY, maxX, maxY, other.minX, other.minY, other.maxX, other.maxY);
+    }
+
+    /**
+     * Checks whether two boxes given by their edges overlap.
+     * Boxes that only touch along an edge do not overlap.
+     */
+    public static boolean intersects(double aMinX, double aMinY, double aMaxX, double aMaxY,
+                                     double bMinX, double bMinY, double bMaxX, double bMaxY) {
+        return aMinX < bMaxX && aMaxX > bMinX && aMinY < bMaxY && aMaxY > bMinY;
+    }
+
+    /**
+     * Finds when box A, moving in a straight line, first overlaps box B, which stands still.
+     * For two moving boxes, pass A's move minus B's move and both boxes where they started.
+     * A fast box is caught even if it passes right through B within the move.
+     *
+     * @param dx How far A moves along x.
+     * @param dy How far A moves along y.
+     * @return The fraction of the move, from 0 (they already overlap) up to but not including 1,
+     *         after which the boxes overlap, or {@link #NO_HIT} if they do not overlap during the move.
+     */
+    public static double timeOfImpact(double aMinX, double aMinY, double aMaxX, double aMaxY,
+                                      double dx, double dy,
+                                      double bMinX, double bMinY, double bMaxX, double bMaxY) {
+        // 1) The interval of the move during which the boxes overlap along each axis
+        double entry = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+        if (dx == 0) {
+            if (aMinX >= bMaxX || aMaxX <= bMinX) {
+                return NO_HIT;
+            }
+        } else {
+            double near = (dx > 0 ? bMinX - aMaxX : bMaxX - aMinX) / dx;
+            double far = (dx > 0 ? bMaxX - aMinX : bMinX - aMaxX) / dx;
+            entry = near;
+            exit = far;
+        }
+        if (dy == 0) {
+            if (aMinY >= bMaxY || aMaxY <= bMinY) {
+                return NO_HIT;
+            }
+        } else {
+            double near = (dy > 0 ? bMinY - aMaxY : bMaxY - aMinY) / dy;
+            double far = (dy > 0 ? bMaxY - aMinY : bMinY - aMaxY) / dy;
+            entry = Math.max(entry, near);
+            exit = Math.min(exit, far);
+        }
+
+        // 2) They overlap if the intervals meet within the move
+        if (entry >= exit || entry >= 1 || exit <= 0) {
+            return NO_HIT;
+        }
+        return Math.max(entry, 0);
+    }
+}
@@ -0,0 +1,94 @@
+import bagel.Font;
+import bagel.Image;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared, reference-counted cache of the images and fonts used by the screens.
+ * Images are keyed by path and fonts by path and size, so each asset is loaded once
+ * however many screens use it. Every acquire must be matched by a release; an asset is
+ * dropped when its last user releases it, normally when a screen is left.
+ * Like the rest of bagel, this must only be used from the game thread.
+ */
+public final class Assets {
+    private static final Map<String, Entry<Image>> IMAGES = new HashMap<>();
+    private static final Map<String, Entry<Font>> FONTS = new HashMap<>();
+
+    // A loaded asset and the number of users holding it
+    private static final class Entry<T> {
+        private final T asset;
+        private int references = 0;
+
+        private Entry(T asset) {
+            this.asset = asset;
+        }
+    }
+
+    private Assets() {
+    }
+
+    /**
+     * Returns the image at the given path, loading it if no one holds it yet.
+     *
+     * @param path Path to the image file.
+     * @return The shared image.
+     */
+    public static Image acquireImage(String path) {
+        Entry<Image> entry = IMAGES.computeIfAbsent(path, p -> new Entry<>(new Image(p)));
+        entry.references++;
+        return entry.asset;
+    }
+
+    /**
+     * Gives back an image obtained from {@link #acquireImage(String)}.
+     *
+     * @param path Path the image was acquired with.
+     */
+    public static void releaseImage(String path) {
+        release(IMAGES, path);
+    }
+
+    /**
+     * Returns the font at the given path and size, loading it if no one holds it yet.
+     *
+     * @param path Path to the font file.
+     * @param size Font size in points.
+     * @return The shared font.
+     */
+    public static Font acquireFont(String path, int size) {
+        Entry<Font> entry = FONTS.computeIfAbsent(fontKey(path, size), k -> new Entry<>(new Font(path, size)));
+        entry.references++;
+        return entry.asset;
+    }
+
+    /**
+     * Gives back a font obtained from {@link #acquireFont(String, int)}.
+     *
+     * @param path Path the font was acquired with.
+     * @param size Size the font was acquired with.
+     */
+    public static void releaseFont(String path, int size) {
+        release(FONTS, fontKey(path, size));
+    }
+
+    /**
+     * Returns the number of distinct images and fonts currently loaded.
+     */
+    public static int getLoadedCount() {
+        return IMAGES.size() + FONTS.size();
+    }
+
+    private static String fontKey(String path, int size) {
+        return path + "@" + size;
+    }
+
+    private static <T> void release(Map<String, Entry<T>> cache, String key) {
+        Entry<T> entry = cache.get(key);
+        if (entry == null) {
+            throw new IllegalStateException("Asset released more often than acquired: " + key);
+        }
+        if (--entry.references == 0) {
+            cache.remove(key);
+        }
+    }
+}
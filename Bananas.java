@@ -0,0 +1,117 @@
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Holds the bananas thrown by every IntelligentMonkey in a level.
+ * Bananas move horizontally and expire after traveling a set distance.
+ */
+public class Bananas extends BodyStore {
+    private static final String IMAGE = "res/banana.png";
+    private static final double SPEED = 1.8;
+    private static final double MAX_DISTANCE = 300;
+    private static final double WIDTH = Sprites.width(IMAGE);
+    private static final double HEIGHT = Sprites.height(IMAGE);
+
+    /** The thrower is alive and on a platform this tick. */
+    private static final byte THROWER_ACTIVE = 1 << 2;
+
+    // Index of the throwing monkey in the level's monkey list
+    private final int[] thrower;
+
+    /**
+     * Creates an empty banana pool.
+     *
+     * @param capacity Maximum number of bananas in flight at once.
+     */
+    public Bananas(int capacity) {
+        super(capacity, false);
+        this.thrower = new int[capacity];
+    }
+
+    /**
+     * Throws a banana with a given starting position and direction.
+     * The throw is skipped if the pool is full.
+     *
+     * @param startX      Starting x-coordinate
+     * @param startY      Starting y-coordinate
+     * @param movingRight Direction of motion
+     * @param monkeyIndex Index of the throwing monkey in the level's monkey list
+     */
+    public void spawn(double startX, double startY, boolean movingRight, int monkeyIndex) {
+        int i = add(startX, startY, movingRight ? SPEED : -SPEED, 0, WIDTH, HEIGHT,
+                movingRight ? FACING_RIGHT : 0);
+        if (i >= 0) {
+            thrower[i] = monkeyIndex;
+        }
+    }
+
+    /**
+     * Moves every banana and drops the ones that exceed their travel limit.
+     * Bananas whose thrower is still active advance an extra step first,
+     * matching the throwers' own per-frame update of their bananas.
+     *
+     * @param monkeys The level's monkeys, indexed as given to {@link #spawn}.
+     */
+    public void update(List<Monkey> monkeys) {
+        for (int i = 0; i < count; i++) {
+            if (((IntelligentMonkey) monkeys.get(thrower[i])).isThrowing()) {
+                flags[i] |= THROWER_ACTIVE;
+            } else {
+                flags[i] &= ~THROWER_ACTIVE;
+            }
+        }
+
+        // 1) Step taken by active throwers
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & THROWER_ACTIVE) != 0) {
+                x[i] += vx[i];
+                travelled[i] += Math.abs(vx[i]);
+            }
+        }
+        expire();
+
+        // 2) Step taken by every banana
+        integrate(0, 0);
+        expire();
+    }
+
+    // Drops every banana that has reached its max range
+    private void expire() {
+        for (int i = 0; i < count; i++) {
+            if (travelled[i] >= MAX_DISTANCE) {
+                flags[i] |= REMOVED;
+            }
+        }
+        compact();
+    }
+
+    @Override
+    protected void copy(int from, int to) {
+        super.copy(from, to);
+        thrower[to] = thrower[from];
+    }
+
+    @Override
+    public int getStateBytes() {
+        return super.getStateBytes() + getCapacity() * Integer.BYTES;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        super.saveState(out);
+        GameSnapshot.putInts(out, thrower, count);
+    }
+
+    @Override
+    public void restoreState(ByteBuffer in) {
+        super.restoreState(in);
+        GameSnapshot.getInts(in, thrower, count);
+    }
+
+    /**
+     * Returns the path of the banana image.
+     */
+    public String getImagePath() {
+        return IMAGE;
+    }
+}
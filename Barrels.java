@@ -0,0 +1,149 @@
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Holds every barrel in a level, affected by gravity and platform collisions.
+ * A barrel can be destroyed, at which point it will no longer be drawn or interact with the environment.
+ * Destroyed barrels keep their slot (and their last position) so indices stay stable for the whole level.
+ * A barrel that has landed and stayed put for {@link Physics#SLEEP_TICKS} ticks falls asleep
+ * and is skipped by the physics pass until woken.
+ */
+public class Barrels extends BodyStore {
+    private static final String BARREL_IMAGE = "res/barrel.png";
+    private static final double WIDTH = Sprites.width(BARREL_IMAGE);
+    private static final double HEIGHT = Sprites.height(BARREL_IMAGE);
+
+    /** The barrel has landed and is skipped by the physics pass. */
+    private static final byte ASLEEP = 1 << 2;
+
+    // Ticks in a row each barrel has spent landed without moving
+    private final int[] restTicks;
+
+    /**
+     * Places a barrel at each of the level's barrel positions.
+     *
+     * @param positions Starting centre of each barrel, in level order.
+     */
+    public Barrels(List<LevelConfig.Position> positions) {
+        super(positions.size(), true);
+        this.restTicks = new int[positions.size()];
+        for (LevelConfig.Position position : positions) {
+            add(position.x(), position.y(), 0, 0, WIDTH, HEIGHT, (byte) 0);
+        }
+    }
+
+    /**
+     * Applies gravity to every barrel that is neither destroyed nor asleep
+     * and lands it on the first platform its fall reaches.
+     *
+     * @param platforms The level's platform index for collision detection.
+     */
+    public void update(PlatformIndex platforms) {
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & (REMOVED | ASLEEP)) != 0) {
+                continue;
+            }
+            double startY = y[i];
+
+            // 1) Apply gravity, sweeping the fall so a fast barrel cannot pass through a platform
+            vy[i] = Math.min(vy[i] + Physics.BARREL_GRAVITY, Physics.BARREL_TERMINAL_VELOCITY);
+            Platform platform = platforms.firstSwept(left(i), top(i), right(i), bottom(i), 0, vy[i]);
+            y[i] += vy[i];
+
+            // 2) Land on the first platform the fall reached
+            if (platform != null) {
+                // Position the barrel on top of the platform
+                y[i] = platform.getY() - (platform.getHeight() / 2) - (HEIGHT / 2);
+                vy[i] = 0; // Stop falling
+            }
+
+            // 3) Fall asleep after resting in place for long enough
+            if (vy[i] == 0 && y[i] == startY) {
+                if (++restTicks[i] >= Physics.SLEEP_TICKS) {
+                    flags[i] |= ASLEEP;
+                }
+            } else {
+                restTicks[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Puts a barrel back in the physics pass, e.g. after the platform under it changes.
+     *
+     * @param i Index of the barrel.
+     */
+    public void wake(int i) {
+        flags[i] &= ~ASLEEP;
+        restTicks[i] = 0;
+    }
+
+    /**
+     * Checks whether a barrel has landed and is being skipped by the physics pass.
+     *
+     * @param i Index of the barrel.
+     */
+    public boolean isAsleep(int i) {
+        return (flags[i] & ASLEEP) != 0;
+    }
+
+    @Override
+    protected void copy(int from, int to) {
+        super.copy(from, to);
+        restTicks[to] = restTicks[from];
+    }
+
+    @Override
+    public int getStateBytes() {
+        return super.getStateBytes() + getCapacity() * Integer.BYTES;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        super.saveState(out);
+        GameSnapshot.putInts(out, restTicks, count);
+    }
+
+    @Override
+    public void restoreState(ByteBuffer in) {
+        super.restoreState(in);
+        GameSnapshot.getInts(in, restTicks, count);
+    }
+
+    /**
+     * Marks a barrel as destroyed, preventing it from being drawn or updated.
+     *
+     * @param i Index of the barrel.
+     */
+    public void destroy(int i) {
+        flags[i] |= REMOVED;
+        GameLog.info("Barrel destroyed!");
+    }
+
+    /**
+     * Checks if a barrel has been destroyed.
+     *
+     * @param i Index of the barrel.
+     * @return {@code true} if the barrel is destroyed, {@code false} otherwise.
+     */
+    public boolean isDestroyed(int i) {
+        return isRemoved(i);
+    }
+
+    /**
+     * Checks whether a barrel that is not destroyed overlaps the given box.
+     */
+    @Override
+    public boolean intersects(int i, Aabb box) {
+        return !isRemoved(i) && super.intersects(i, box);
+    }
+
+    /**
+     * Retrieves the path of the barrel image.
+     *
+     * @return The image path used to draw barrels.
+     */
+    public String getImagePath() {
+        return BARREL_IMAGE;
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many games of a level at once with bot input, for balancing, and summarises how they went.
+ * Every game is an independent {@link GameWorld} sharing only the immutable {@link LevelConfig},
+ * so the games run on a work-stealing pool with one worker per core and no locking.
+ * Each bot is seeded from the batch seed and its game number, so a batch is reproducible
+ * no matter how the games are spread over the workers.
+ */
+public class BatchRunner {
+
+    /**
+     * How one game ended.
+     *
+     * @param game       The game's number in the batch, from 0.
+     * @param won        Whether Mario won.
+     * @param score      The score when the game ended.
+     * @param finalScore The end-of-level score from {@link GameWorld#computeFinalScore(boolean)}, as shown
+     *                   on the end screen.
+     * @param ticks      Ticks played.
+     * @param cause      Why Mario lost, or {@link DeathCause#NONE} if he won.
+     */
+    public record Outcome(int game, boolean won, int score, int finalScore, int ticks, DeathCause cause) {
+    }
+
+    /**
+     * Entry point for the batch runner.
+     *
+     * @param args Optional number of games (default 1000), level number or compiled ".lvl" file
+     *             (default 1), seed (default 1) and worker count (default one per core).
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String levelArg = args.length > 1 ? args[1] : "1";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        LevelConfig config = LevelFile.load(levelArg);
+        long start = System.nanoTime();
+        List<Outcome> outcomes = run(config, games, seed, workers);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        printSummary(config.getLevel(), outcomes, seconds, workers);
+    }
+
+    /**
+     * Plays a batch of games of one level in parallel. The shared {@link PhaseTimers} are
+     * switched off first, as they are not safe to update from several threads.
+     *
+     * @param config  The level to play.
+     * @param games   Number of games.
+     * @param seed    Seed for the bots.
+     * @param workers Number of worker threads.
+     * @return The outcomes, in game order.
+     */
+    public static List<Outcome> run(LevelConfig config, int games, long seed, int workers)
+            throws InterruptedException, ExecutionException {
+        // The phase timers are shared and single-threaded
+        PhaseTimers.setEnabled(false);
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<Callable<Outcome>> tasks = new ArrayList<>(games);
+            for (int game = 0; game < games; game++) {
+                int number = game;
+                tasks.add(() -> play(config, number, seed));
+            }
+            List<Outcome> outcomes = new ArrayList<>(games);
+            for (Future<Outcome> future : pool.invokeAll(tasks)) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one game to the end with a random bot.
+     */
+    public static Outcome play(LevelConfig config, int game, long seed) {
+        GameWorld world = new GameWorld(config, 0);
+        RandomBot bot = new RandomBot(new SplittableRandom(seed * 1_000_003L + game));
+        int ticks = 0;
+        boolean ended = false;
+        while (!ended) {
+            ended = world.tick(bot.next());
+            ticks++;
+        }
+        boolean won = world.hasWon();
+        return new Outcome(game, won, world.getScore(), world.getFinalScore(), ticks,
+                won ? DeathCause.NONE : world.getDeathCause());
+    }
+
+    private static void printSummary(int level, List<Outcome> outcomes, double seconds, int workers) {
+        int games = outcomes.size();
+        int wins = 0;
+        long ticks = 0;
+        int[] scores = new int[games];
+        int[] finalScores = new int[games];
+        int[] lengths = new int[games];
+        Map<DeathCause, Integer> causes = new EnumMap<>(DeathCause.class);
+        for (int i = 0; i < games; i++) {
+            Outcome outcome = outcomes.get(i);
+            if (outcome.won()) {
+                wins++;
+            } else {
+                causes.merge(outcome.cause(), 1, Integer::sum);
+            }
+            ticks += outcome.ticks();
+            scores[i] = outcome.score();
+            finalScores[i] = outcome.finalScore();
+            lengths[i] = outcome.ticks();
+        }
+
+        System.out.println("Level " + level + ": " + games + " games on " + workers + " workers in "
+                + String.format("%.2f", seconds) + "s (" + String.format("%.0f", games / seconds) + " games/s, "
+                + String.format("%.0f", ticks / seconds) + " ticks/s)");
+        System.out.println("Won " + wins + " (" + String.format("%.1f", 100.0 * wins / games) + "%), lost "
+                + (games - wins) + " " + causes);
+        System.out.println("Score        " + distribution(scores));
+        System.out.println("Final score  " + distribution(finalScores));
+        System.out.println("Ticks        " + distribution(lengths));
+    }
+
+    // Mean, median, 99th percentile and maximum
+    private static String distribution(int[] values) {
+        if (values.length == 0) {
+            return "-";
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        return String.format("mean %.1f, p50 %d, p99 %d, max %d", mean, sorted[(sorted.length - 1) / 2],
+                sorted[(int) Math.ceil(0.99 * sorted.length) - 1], sorted[sorted.length - 1]);
+    }
+
+    /**
+     * A bot that holds a random direction for a random time, climbs and jumps now and then,
+     * and fires whenever it can.
+     */
+    private static class RandomBot {
+        private static final int[] MOVES = {Controls.LEFT, Controls.RIGHT, Controls.UP, Controls.DOWN,
+                Controls.RIGHT | Controls.UP, Controls.NONE};
+        private static final int MIN_HOLD_TICKS = 10;
+        private static final int MAX_HOLD_TICKS = 90;
+        private static final double JUMP_CHANCE = 0.02;
+        private static final double SHOOT_CHANCE = 0.05;
+
+        private final SplittableRandom random;
+        private int held = Controls.NONE;
+        private int ticksLeft = 0;
+
+        RandomBot(SplittableRandom random) {
+            this.random = random;
+        }
+
+        int next() {
+            if (ticksLeft == 0) {
+                held = MOVES[random.nextInt(MOVES.length)];
+                ticksLeft = random.nextInt(MIN_HOLD_TICKS, MAX_HOLD_TICKS + 1);
+            }
+            ticksLeft--;
+            int buttons = held;
+            if (random.nextDouble() < JUMP_CHANCE) {
+                buttons |= Controls.JUMP;
+            }
+            if (random.nextDouble() < SHOOT_CHANCE) {
+                buttons |= Controls.SHOOT;
+            }
+            return buttons;
+        }
+    }
+}
@@ -1,51 +1,64 @@
-import bagel.Image;
-import bagel.util.Point;
-import bagel.util.Rectangle;
+import java.nio.ByteBuffer;
 
 /**
  * Represents a Blaster weapon in the game.
  * When collected by Mario, it grants bullets that can be used to damage enemies.
  */
 public class Blaster {
-    private final Image image = new Image("res/blaster.png");
+    private static final String IMAGE = "res/blaster.png";
     private final double x, y;
     private final double width, height;
 
     private int bullets = 5;
     private boolean collected = false;
+    private final Aabb bounds = new Aabb();
+
+    /** Bytes written by {@link #saveState(ByteBuffer)}. */
+    public static final int STATE_BYTES = Integer.BYTES + 1;
 
     /**
-     * Constructs a Blaster object using its position from app.properties.
-     * @param level Level number the blaster belongs to
-     * @param index Index of the blaster in that level
+     * Constructs a Blaster object at the given position.
+     * @param x X-coordinate of the blaster's collision box
+     * @param y Y-coordinate of the blaster's collision box
      */
-    public Blaster(int level, int index) {
-        String key = "blaster.level" + level + "." + index;
-        String value = IOUtils.getProperty(key);
-        String[] coords = value.split(",");
-        this.x = Double.parseDouble(coords[0].trim());
-        this.y = Double.parseDouble(coords[1].trim());
+    public Blaster(double x, double y) {
+        this.x = x;
+        this.y = y;
+
+        this.width = Sprites.width(IMAGE);
+        this.height = Sprites.height(IMAGE);
+        this.bounds.set(x, y, width, height);
+    }
 
+    /**
+     * Gets the path of the blaster's image.
+     *
+     * @return The image path used to draw the blaster.
+     */
+    public String getImagePath() {
+        return IMAGE;
+    }
 
-        this.width = image.getWidth();
-        this.height = image.getHeight();
+    /**
+     * Gets the x-coordinate of the blaster (sprite centre).
+     */
+    public double getX() {
+        return x;
     }
 
     /**
-     * Draws the blaster if it has not been collected.
+     * Gets the y-coordinate of the blaster (sprite centre).
      */
-    public void draw() {
-        if (!collected) {
-            image.draw(x, y);
-        }
+    public double getY() {
+        return y;
     }
 
     /**
      * Returns the bounding box used for collision detection.
      * If collected, returns an off-screen rectangle.
      */
-    public Rectangle getBoundingBox() {
-        return image.getBoundingBoxAt(new Point(x + width / 2, y + height / 2));
+    public Aabb getBoundingBox() {
+        return bounds;
     }
 
     /**
@@ -79,6 +92,22 @@ public class Blaster {
         return bullets;
     }
 
+    /**
+     * Writes the blaster's bullets and collected flag into a snapshot.
+     */
+    public void saveState(ByteBuffer out) {
+        out.putInt(bullets);
+        GameSnapshot.putBoolean(out, collected);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(ByteBuffer)}.
+     */
+    public void restoreState(ByteBuffer in) {
+        bullets = in.getInt();
+        collected = GameSnapshot.getBoolean(in);
+    }
+
 
 
 }
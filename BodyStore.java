@@ -0,0 +1,355 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Structure-of-arrays storage for many small moving bodies of one kind.
+ * Position, velocity, distance travelled, size and flags live in parallel primitive arrays,
+ * so the per-tick passes are tight loops over contiguous memory instead of
+ * method calls on scattered objects. Subclasses define how their bodies spawn,
+ * collide and expire.
+ *
+ * The store is also a bounded pool: every slot is allocated up front, live bodies are
+ * kept packed at the front, and a released slot is filled by swapping in the last body.
+ * Occupancy and the high-water mark are tracked so pools can be sized per level.
+ */
+public class BodyStore {
+    /** The body is gone and will be dropped by the next {@link #compact()}. */
+    protected static final byte REMOVED = 1;
+    /** The body faces (and moves) right. */
+    protected static final byte FACING_RIGHT = 1 << 1;
+
+    private final boolean centred;
+    private final int capacity;
+    private int highWaterMark = 0;
+    private int droppedCount = 0;
+
+    protected int count = 0;
+    protected double[] x, y, vx, vy, travelled, width, height;
+    // Position at the start of the last tick, for render interpolation
+    protected double[] prevX, prevY;
+    protected byte[] flags;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity Maximum number of live bodies; all slots are allocated up front.
+     * @param centred  {@code true} if (x, y) is the centre of each body,
+     *                 {@code false} if it is the top-left corner.
+     */
+    protected BodyStore(int capacity, boolean centred) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Pool capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.centred = centred;
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.prevX = new double[capacity];
+        this.prevY = new double[capacity];
+        this.vx = new double[capacity];
+        this.vy = new double[capacity];
+        this.travelled = new double[capacity];
+        this.width = new double[capacity];
+        this.height = new double[capacity];
+        this.flags = new byte[capacity];
+    }
+
+    /**
+     * Takes a free slot and returns its index, or -1 if the pool is full.
+     */
+    protected int acquire() {
+        if (count == capacity) {
+            droppedCount++;
+            return -1;
+        }
+        int i = count++;
+        highWaterMark = Math.max(highWaterMark, count);
+        return i;
+    }
+
+    /**
+     * Frees a slot straight away by moving the last body into it.
+     * Callers iterating over the store must revisit index {@code i} afterwards.
+     */
+    protected void release(int i) {
+        int last = --count;
+        if (i != last) {
+            copy(last, i);
+        }
+    }
+
+    /**
+     * Acquires a slot and fills it, returning its index or -1 if the pool is full.
+     */
+    protected int add(double startX, double startY, double velocityX, double velocityY,
+                      double bodyWidth, double bodyHeight, byte bodyFlags) {
+        int i = acquire();
+        if (i < 0) {
+            return -1;
+        }
+        x[i] = startX;
+        y[i] = startY;
+        prevX[i] = startX;
+        prevY[i] = startY;
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+        travelled[i] = 0;
+        width[i] = bodyWidth;
+        height[i] = bodyHeight;
+        flags[i] = bodyFlags;
+        return i;
+    }
+
+    /**
+     * Moves every body by one step: gravity, capped at the terminal velocity, then velocity.
+     * The loops are branch-free so the JIT can vectorize them.
+     */
+    protected void integrate(double gravity, double terminalVelocity) {
+        for (int i = 0; i < count; i++) {
+            vy[i] = Math.min(vy[i] + gravity, terminalVelocity);
+        }
+        for (int i = 0; i < count; i++) {
+            x[i] += vx[i];
+            y[i] += vy[i];
+        }
+        for (int i = 0; i < count; i++) {
+            travelled[i] += Math.abs(vx[i]);
+        }
+    }
+
+    /**
+     * Releases every removed body with swap-remove, so live bodies stay packed
+     * at the front of the arrays. Their order is not preserved.
+     */
+    protected void compact() {
+        int i = 0;
+        while (i < count) {
+            if ((flags[i] & REMOVED) != 0) {
+                release(i); // re-check i, which now holds the former last body
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Copies one body's columns over another's. Subclasses with extra columns copy them too.
+     */
+    protected void copy(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        travelled[to] = travelled[from];
+        width[to] = width[from];
+        height[to] = height[from];
+        flags[to] = flags[from];
+    }
+
+    /**
+     * Returns the number of bodies in the store.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the maximum number of live bodies the pool can hold.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the largest number of bodies that were live at the same time.
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Returns how many spawns were refused because the pool was full.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Remembers every body's current position as the start of the next tick.
+     */
+    public void savePositions() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    /**
+     * Gets the x-coordinate to draw a body at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderX(int i, double alpha) {
+        return prevX[i] + (x[i] - prevX[i]) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate to draw a body at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderY(int i, double alpha) {
+        return prevY[i] + (y[i] - prevY[i]) * alpha;
+    }
+
+    /**
+     * Gets how far a body has moved along x since the start of the tick, for swept collision tests.
+     */
+    public double getMoveX(int i) {
+        return x[i] - prevX[i];
+    }
+
+    /**
+     * Gets how far a body has moved along y since the start of the tick, for swept collision tests.
+     */
+    public double getMoveY(int i) {
+        return y[i] - prevY[i];
+    }
+
+    public double getWidth(int i) {
+        return width[i];
+    }
+
+    public double getHeight(int i) {
+        return height[i];
+    }
+
+    /**
+     * Returns a body's flags, e.g. to send them to network clients.
+     */
+    public byte getFlags(int i) {
+        return flags[i];
+    }
+
+    public boolean isFacingRight(int i) {
+        return (flags[i] & FACING_RIGHT) != 0;
+    }
+
+    protected boolean isRemoved(int i) {
+        return (flags[i] & REMOVED) != 0;
+    }
+
+    public double left(int i) {
+        return centred ? x[i] - width[i] / 2 : x[i];
+    }
+
+    public double top(int i) {
+        return centred ? y[i] - height[i] / 2 : y[i];
+    }
+
+    public double right(int i) {
+        return left(i) + width[i];
+    }
+
+    public double bottom(int i) {
+        return top(i) + height[i];
+    }
+
+    /**
+     * Sets the number of live bodies in a store mirrored from the network host.
+     *
+     * @throws IllegalArgumentException if the count is more than the pool holds.
+     */
+    public void setNetCount(int newCount) {
+        if (newCount < 0 || newCount > capacity) {
+            throw new IllegalArgumentException("Host sent " + newCount + " bodies, pool capacity is " + capacity);
+        }
+        count = newCount;
+    }
+
+    /**
+     * Shows a body of a mirrored store as the network host last sent it.
+     *
+     * @param i           Index of the body; below {@link #size()}.
+     * @param newX        The host's x-coordinate.
+     * @param newY        The host's y-coordinate.
+     * @param newFlags    The host's flags.
+     * @param interpolate {@code true} to draw the move from the old position, {@code false} if the slot
+     *                    now holds a different body that should appear where it is.
+     */
+    public void applyNetBody(int i, double newX, double newY, byte newFlags, boolean interpolate) {
+        prevX[i] = interpolate ? x[i] : newX;
+        prevY[i] = interpolate ? y[i] : newY;
+        x[i] = newX;
+        y[i] = newY;
+        flags[i] = newFlags;
+    }
+
+    /**
+     * Returns the most bytes {@link #saveState(ByteBuffer)} can write, with the pool full.
+     * Subclasses with extra columns add their size per slot.
+     */
+    public int getStateBytes() {
+        return 3 * Integer.BYTES + capacity * (9 * Double.BYTES + 1);
+    }
+
+    /**
+     * Writes the live bodies and pool counters into a snapshot, one column at a time.
+     * Subclasses with extra columns append them.
+     */
+    public void saveState(ByteBuffer out) {
+        out.putInt(count).putInt(highWaterMark).putInt(droppedCount);
+        GameSnapshot.putDoubles(out, x, count);
+        GameSnapshot.putDoubles(out, y, count);
+        GameSnapshot.putDoubles(out, prevX, count);
+        GameSnapshot.putDoubles(out, prevY, count);
+        GameSnapshot.putDoubles(out, vx, count);
+        GameSnapshot.putDoubles(out, vy, count);
+        GameSnapshot.putDoubles(out, travelled, count);
+        GameSnapshot.putDoubles(out, width, count);
+        GameSnapshot.putDoubles(out, height, count);
+        out.put(flags, 0, count);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(ByteBuffer)}.
+     * Slots past the restored count are left as they are; they are dead until reused.
+     *
+     * @throws IllegalArgumentException if the snapshot holds more bodies than the pool.
+     */
+    public void restoreState(ByteBuffer in) {
+        int savedCount = in.getInt();
+        if (savedCount < 0 || savedCount > capacity) {
+            throw new IllegalArgumentException("Snapshot holds " + savedCount
+                    + " bodies, pool capacity is " + capacity);
+        }
+        count = savedCount;
+        highWaterMark = in.getInt();
+        droppedCount = in.getInt();
+        GameSnapshot.getDoubles(in, x, count);
+        GameSnapshot.getDoubles(in, y, count);
+        GameSnapshot.getDoubles(in, prevX, count);
+        GameSnapshot.getDoubles(in, prevY, count);
+        GameSnapshot.getDoubles(in, vx, count);
+        GameSnapshot.getDoubles(in, vy, count);
+        GameSnapshot.getDoubles(in, travelled, count);
+        GameSnapshot.getDoubles(in, width, count);
+        GameSnapshot.getDoubles(in, height, count);
+        in.get(flags, 0, count);
+    }
+
+    /**
+     * Checks whether a body overlaps the given box.
+     *
+     * @param i   Index of the body.
+     * @param box The box to test against.
+     * @return {@code true} if they overlap, {@code false} otherwise.
+     */
+    public boolean intersects(int i, Aabb box) {
+        return Aabb.intersects(left(i), top(i), right(i), bottom(i),
+                box.left(), box.top(), box.right(), box.bottom());
+    }
+}
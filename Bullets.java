@@ -0,0 +1,86 @@
+/**
+ * Holds the bullets shot by Mario when holding a blaster.
+ * Bullets move horizontally, have a max range, and disappear upon hitting a platform or target.
+ */
+public class Bullets extends BodyStore {
+    private static final double SPEED = 3.8;
+    private static final double MAX_DISTANCE = 300;
+    private static final String BULLET_LEFT = "res/bullet_left.png";
+    private static final String BULLET_RIGHT = "res/bullet_right.png";
+    private static final double LEFT_WIDTH = Sprites.width(BULLET_LEFT);
+    private static final double LEFT_HEIGHT = Sprites.height(BULLET_LEFT);
+    private static final double RIGHT_WIDTH = Sprites.width(BULLET_RIGHT);
+    private static final double RIGHT_HEIGHT = Sprites.height(BULLET_RIGHT);
+
+    /**
+     * Creates an empty bullet pool.
+     *
+     * @param capacity Maximum number of bullets in flight at once.
+     */
+    public Bullets(int capacity) {
+        super(capacity, true);
+    }
+
+    /**
+     * Fires a new bullet from the specified location and direction.
+     *
+     * @param startX      Initial x-coordinate
+     * @param startY      Initial y-coordinate
+     * @param movingRight Whether the bullet moves to the right
+     * @return {@code true} if the bullet was fired, {@code false} if the pool is full.
+     */
+    public boolean spawn(double startX, double startY, boolean movingRight) {
+        return add(startX, startY, movingRight ? SPEED : -SPEED, 0, movingRight ? RIGHT_WIDTH : LEFT_WIDTH,
+                movingRight ? RIGHT_HEIGHT : LEFT_HEIGHT, movingRight ? FACING_RIGHT : 0) >= 0;
+    }
+
+    /**
+     * Moves every bullet and marks it spent if it exceeds its range, exits the screen,
+     * or its path this tick crosses a platform, however thin. Spent bullets can still hit
+     * a target this tick; they are dropped by {@link #removeSpent()}.
+     *
+     * @param platforms   The level's platform index
+     * @param screenWidth Width of the game screen
+     */
+    public void update(PlatformIndex platforms, double screenWidth) {
+        // Move bullets in their current direction
+        integrate(0, 0);
+
+        for (int i = 0; i < count; i++) {
+            // Mark bullet as spent if it travels too far or exits the screen
+            if (travelled[i] > MAX_DISTANCE || x[i] < 0 || x[i] > screenWidth) {
+                flags[i] |= REMOVED;
+            }
+
+            // Mark bullet as spent if it hits any platform on the way
+            if (platforms.firstSwept(left(i) - vx[i], top(i), right(i) - vx[i], bottom(i), vx[i], 0) != null) {
+                flags[i] |= REMOVED;
+            }
+        }
+    }
+
+    /**
+     * Marks a bullet as spent (to be removed).
+     *
+     * @param i Index of the bullet.
+     */
+    public void markSpent(int i) {
+        flags[i] |= REMOVED;
+    }
+
+    /**
+     * Drops every bullet that hit something or expired.
+     */
+    public void removeSpent() {
+        compact();
+    }
+
+    /**
+     * Returns the path of the appropriate image based on direction.
+     *
+     * @param i Index of the bullet.
+     */
+    public String getImagePath(int i) {
+        return isFacingRight(i) ? BULLET_RIGHT : BULLET_LEFT;
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Bit flags describing the player's input for a single simulation tick.
+ * LEFT, RIGHT, UP and DOWN mean the key is held; JUMP and SHOOT mean the key
+ * was pressed during this tick. Keeping input as a plain int lets the game
+ * logic run without a window.
+ */
+public class Controls {
+    public static final int NONE = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int UP = 1 << 2;
+    public static final int DOWN = 1 << 3;
+    public static final int JUMP = 1 << 4;
+    public static final int SHOOT = 1 << 5;
+
+    /**
+     * Checks whether a control is set in the given input bits.
+     *
+     * @param buttons The input bits for this tick.
+     * @param control One of the control flags, e.g. {@link #LEFT}.
+     * @return {@code true} if the control is set, {@code false} otherwise.
+     */
+    public static boolean isSet(int buttons, int control) {
+        return (buttons & control) != 0;
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Why a level was lost. {@link #NONE} while Mario is alive or after a win.
+ */
+public enum DeathCause {
+    NONE,
+    BARREL,
+    BANANA,
+    MONKEY,
+    DONKEY,
+    TIME_UP
+}
@@ -0,0 +1,326 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Delta compression of {@link NetState} views for the network mode.
+ * An update lists only the entities that differ from a baseline view both ends hold:
+ * each as the signed step from the previous entity's index, a mask of its changed fields
+ * and each changed field's difference, all written as Elias gamma codes so small steps
+ * and small moves take a few bits. Updates are capped at a byte budget. The pinned
+ * entities go first; the rest are visited from a cursor that carries on where the last
+ * update stopped, so an entity that did not fit is sent soon after. At most a fixed number
+ * of entities are looked at per update, so both the packet size and the time to build it
+ * stay the same however many entities the level has.
+ */
+public final class DeltaCodec {
+    // Most bits one entity can take: a "more" bit, its index step, the field mask and four differences
+    private static final int MAX_ENTITY_BITS = 1 + 67 + NetState.FIELDS + NetState.FIELDS * 67;
+    // Fewest bits one entity can take, which bounds how many fit in an update
+    private static final int MIN_ENTITY_BITS = 1 + 1 + NetState.FIELDS + 1;
+
+    private DeltaCodec() {
+    }
+
+    /**
+     * The entities one update carried and their new values, kept by both ends so
+     * the update can later be applied to the baseline it was made against.
+     */
+    public static final class Update {
+        private int tick = -1;
+        private int baseline = -1;
+        private int count = 0;
+        private final int[] entities;
+        private final int[] values;
+
+        /**
+         * Creates an empty update for the given budget.
+         *
+         * @param budgetBytes The most bytes of entity data one update may take.
+         */
+        public Update(int budgetBytes) {
+            int capacity = budgetBytes * 8 / MIN_ENTITY_BITS + 1;
+            this.entities = new int[capacity];
+            this.values = new int[capacity * NetState.FIELDS];
+        }
+
+        /**
+         * Returns the tick the update describes.
+         */
+        public int getTick() {
+            return tick;
+        }
+
+        /**
+         * Returns the tick of the baseline the update was made against, or -1 for an all-zero view.
+         */
+        public int getBaseline() {
+            return baseline;
+        }
+
+        /**
+         * Returns the number of entities the update carried.
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Writes the carried entities' values into a view.
+         */
+        public void applyTo(int[] view) {
+            for (int k = 0; k < count; k++) {
+                System.arraycopy(values, k * NetState.FIELDS, view, entities[k] * NetState.FIELDS, NetState.FIELDS);
+            }
+        }
+
+        /**
+         * Puts back the baseline's values of the carried entities, undoing {@link #applyTo(int[])}.
+         */
+        public void revert(int[] view, int[] baselineView) {
+            for (int k = 0; k < count; k++) {
+                int at = entities[k] * NetState.FIELDS;
+                System.arraycopy(baselineView, at, view, at, NetState.FIELDS);
+            }
+        }
+
+        private void begin(int updateTick, int baselineTick) {
+            tick = updateTick;
+            baseline = baselineTick;
+            count = 0;
+        }
+
+        private void add(int entity, int[] view, int at) {
+            entities[count] = entity;
+            System.arraycopy(view, at, values, count * NetState.FIELDS, NetState.FIELDS);
+            count++;
+        }
+    }
+
+    /**
+     * Writes the entities of {@code current} that differ from {@code baseline} until the budget is spent.
+     *
+     * @param current      The view to send.
+     * @param baseline     The view the receiver already holds for {@code baselineTick}.
+     * @param baselineTick The baseline's tick, or -1 for an all-zero view.
+     * @param tick         The tick being sent.
+     * @param cursor       Where to carry on after the pinned entities, as returned by the last call.
+     * @param maxScan      Most entities after the pinned ones to look at; {@code current} need only
+     *                     be up to date for these.
+     * @param out          Where to write the update; its remaining space is the budget.
+     * @param update       Filled with what was sent.
+     * @return The cursor for the next update.
+     */
+    public static int encode(int[] current, int[] baseline, int baselineTick, int tick, int cursor,
+                             int maxScan, BitWriter out, Update update) {
+        update.begin(tick, baselineTick);
+        int entities = current.length / NetState.FIELDS;
+        int previous = -1;
+
+        // 1) Pinned entities, every update they change
+        for (int e = 0; e < NetState.PINNED && e < entities; e++) {
+            if (writeIfChanged(current, baseline, e, previous, out, update)) {
+                previous = e;
+            }
+        }
+
+        // 2) The rest, round-robin from the cursor while there is room
+        int others = Math.min(entities - NetState.PINNED, maxScan);
+        int next = Math.max(cursor, NetState.PINNED);
+        for (int scanned = 0; scanned < others; scanned++) {
+            if (next >= entities) {
+                next = NetState.PINNED;
+            }
+            if (out.remaining() < MAX_ENTITY_BITS + 1) {
+                break;
+            }
+            if (writeIfChanged(current, baseline, next, previous, out, update)) {
+                previous = next;
+            }
+            next++;
+        }
+        out.writeBits(0, 1);
+        out.flush();
+        return next;
+    }
+
+    /**
+     * Reads an update written by {@link #encode}.
+     *
+     * @param in           The update.
+     * @param baseline     The view for the update's baseline tick.
+     * @param baselineTick The baseline's tick.
+     * @param tick         The tick the update describes.
+     * @param update       Filled with the entities read and their new values.
+     * @throws IllegalArgumentException if the update is truncated or names an entity outside the view.
+     */
+    public static void decode(BitReader in, int[] baseline, int baselineTick, int tick, Update update) {
+        update.begin(tick, baselineTick);
+        int entities = baseline.length / NetState.FIELDS;
+        long previous = -1;
+        while (in.readBits(1) != 0) {
+            long entity = previous + unzigzag(in.readGamma());
+            if (entity < 0 || entity >= entities || update.count == update.entities.length) {
+                throw new IllegalArgumentException("Update names entity " + entity + " of " + entities);
+            }
+            int mask = (int) in.readBits(NetState.FIELDS);
+            int at = (int) entity * NetState.FIELDS;
+            update.entities[update.count] = (int) entity;
+            for (int f = 0; f < NetState.FIELDS; f++) {
+                long difference = (mask & 1 << f) != 0 ? unzigzag(in.readGamma()) : 0;
+                update.values[update.count * NetState.FIELDS + f] = (int) (baseline[at + f] + difference);
+            }
+            update.count++;
+            previous = entity;
+        }
+    }
+
+    private static boolean writeIfChanged(int[] current, int[] baseline, int e, int previous,
+                                          BitWriter out, Update update) {
+        int at = e * NetState.FIELDS;
+        int mask = 0;
+        for (int f = 0; f < NetState.FIELDS; f++) {
+            if (current[at + f] != baseline[at + f]) {
+                mask |= 1 << f;
+            }
+        }
+        if (mask == 0) {
+            return false;
+        }
+        out.writeBits(1, 1);
+        out.writeGamma(zigzag((long) e - previous));
+        out.writeBits(mask, NetState.FIELDS);
+        for (int f = 0; f < NetState.FIELDS; f++) {
+            if ((mask & 1 << f) != 0) {
+                out.writeGamma(zigzag((long) current[at + f] - baseline[at + f]));
+            }
+        }
+        update.add(e, current, at);
+        return true;
+    }
+
+    // Maps a non-zero signed value to a positive one, small magnitudes first
+    private static long zigzag(long value) {
+        return value > 0 ? 2 * value - 1 : -2 * value;
+    }
+
+    private static long unzigzag(long code) {
+        return (code & 1) != 0 ? (code + 1) / 2 : -code / 2;
+    }
+
+    /**
+     * Writes bits, most significant first, after whatever is already in a byte buffer.
+     */
+    public static final class BitWriter {
+        private ByteBuffer buffer;
+        private long pending;
+        private int pendingBits;
+
+        /**
+         * Starts writing at the buffer's position; its remaining space is the limit.
+         */
+        public void begin(ByteBuffer target) {
+            buffer = target;
+            pending = 0;
+            pendingBits = 0;
+        }
+
+        /**
+         * Returns how many more bits fit.
+         */
+        public int remaining() {
+            return buffer.remaining() * 8 - pendingBits;
+        }
+
+        /**
+         * Writes the low {@code count} bits of a value, at most 32.
+         */
+        public void writeBits(long value, int count) {
+            pending = pending << count | value & ((1L << count) - 1);
+            pendingBits += count;
+            while (pendingBits >= 8) {
+                pendingBits -= 8;
+                buffer.put((byte) (pending >>> pendingBits));
+            }
+        }
+
+        /**
+         * Writes a positive value as an Elias gamma code: one bit for 1, 3 bits up to 3, 5 up to 7, and so on.
+         */
+        public void writeGamma(long value) {
+            int bits = 64 - Long.numberOfLeadingZeros(value);
+            writeLong(0, bits - 1);
+            writeLong(value, bits);
+        }
+
+        /**
+         * Pads the last byte with zeros.
+         */
+        public void flush() {
+            if (pendingBits > 0) {
+                writeBits(0, 8 - pendingBits);
+            }
+        }
+
+        private void writeLong(long value, int count) {
+            if (count > 32) {
+                writeBits(value >>> 32, count - 32);
+                count = 32;
+            }
+            writeBits(value, count);
+        }
+    }
+
+    /**
+     * Reads bits written by a {@link BitWriter}.
+     */
+    public static final class BitReader {
+        private ByteBuffer buffer;
+        private long pending;
+        private int pendingBits;
+
+        /**
+         * Starts reading at the buffer's position, up to its limit.
+         */
+        public void begin(ByteBuffer source) {
+            buffer = source;
+            pending = 0;
+            pendingBits = 0;
+        }
+
+        /**
+         * Reads {@code count} bits, at most 32.
+         *
+         * @throws IllegalArgumentException if the data runs out.
+         */
+        public long readBits(int count) {
+            while (pendingBits < count) {
+                if (!buffer.hasRemaining()) {
+                    throw new IllegalArgumentException("Update is truncated");
+                }
+                pending = pending << 8 | buffer.get() & 0xFF;
+                pendingBits += 8;
+            }
+            pendingBits -= count;
+            return pending >>> pendingBits & ((1L << count) - 1);
+        }
+
+        /**
+         * Reads an Elias gamma code.
+         *
+         * @throws IllegalArgumentException if the data runs out or the code is too long.
+         */
+        public long readGamma() {
+            int zeros = 0;
+            while (readBits(1) == 0) {
+                if (++zeros > 40) {
+                    throw new IllegalArgumentException("Bad gamma code in update");
+                }
+            }
+            long value = 1;
+            if (zeros > 32) {
+                value = value << zeros - 32 | readBits(zeros - 32);
+                zeros = 32;
+            }
+            return value << zeros | readBits(zeros);
+        }
+    }
+}
@@ -1,33 +1,41 @@
-import bagel.*;
-import bagel.util.Rectangle;
+import java.nio.ByteBuffer;
 
 /**
  * Represents Donkey Kong in the game, affected by gravity and platform collisions.
  * The Donkey object moves downward due to gravity and lands on platforms when applicable.
  */
 public class Donkey {
+    /** Bytes written by {@link #saveState(ByteBuffer)}. */
+    public static final int STATE_BYTES = 3 * Double.BYTES + 2 * Integer.BYTES + 2;
+
     private static final int MAX_HEALTH = 5;
+    private static final String DONKEY_IMAGE = "res/donkey_kong.png";
 
     private final double x;
     private double y;
-    private final Image DONKEY_IMAGE;
+    private double prevY; // y at the start of the last tick
+    private final double WIDTH, HEIGHT;
     private double velocityY = 0;
+    private int restTicks = 0; // Ticks in a row spent landed without moving
+    private boolean asleep = false; // Skipped by the physics pass until woken
     private int health = MAX_HEALTH;
     private boolean isDead = false;
+    private final Aabb bounds = new Aabb();
 
     /**
-     * Constructs a new Donkey Kong at the starting position defined in app.properties for the given level.
+     * Constructs a new Donkey Kong at the level's starting position.
      *
-     * @param level     The current game level (1 or 2).
+     * @param x The starting x-coordinate (sprite centre).
+     * @param y The starting y-coordinate (sprite centre).
      */
-    public Donkey(int level) {
-        String key = "donkey.level" + level;
-        String value = IOUtils.getProperty(key);
-        String[] coords = value.split(",");
-        this.x = Double.parseDouble(coords[0].trim());
-        this.y = Double.parseDouble(coords[1].trim());
-
-        this.DONKEY_IMAGE = new Image("res/donkey_kong.png");
+    public Donkey(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.prevY = y;
+
+        this.WIDTH = Sprites.width(DONKEY_IMAGE);
+        this.HEIGHT = Sprites.height(DONKEY_IMAGE);
+        updateBounds();
     }
 
 
@@ -35,59 +43,73 @@ public class Donkey {
      * Applies gravity and checks for platform collisions.
      * Stops falling if Donkey lands on a platform.
      */
-    public void update(Platform[] platforms) {
+    public void update(PlatformIndex platforms) {
+        // A landed Donkey would only fall and snap back to the same place
+        if (asleep) {
+            return;
+        }
+        double startY = y;
+
         // Apply gravity
         velocityY += Physics.DONKEY_GRAVITY;
         y += velocityY;
         if (velocityY > Physics.DONKEY_TERMINAL_VELOCITY) {
             velocityY = Physics.DONKEY_TERMINAL_VELOCITY;
         }
+        updateBounds();
 
         // Check for platform collisions
-        for (Platform platform : platforms) {
-            if (isTouchingPlatform(platform)) {
-                // Position Donkey on top of the platform
-                y = platform.getY() - (platform.getHeight() / 2) - (DONKEY_IMAGE.getHeight() / 2);
-                velocityY = 0; // Stop downward movement
-                break;
-            }
+        Platform platform = platforms.firstOverlapping(getBoundingBox());
+        if (platform != null) {
+            // Position Donkey on top of the platform
+            y = platform.getY() - (platform.getHeight() / 2) - (HEIGHT / 2);
+            velocityY = 0; // Stop downward movement
+            updateBounds();
         }
 
-        // Draw Donkey
-        draw();
+        // Fall asleep after resting in place for long enough
+        if (velocityY == 0 && y == startY) {
+            asleep = ++restTicks >= Physics.SLEEP_TICKS;
+        } else {
+            restTicks = 0;
+        }
     }
 
     /**
-     * Checks if Donkey is colliding with a given platform.
-     *
-     * @param platform The platform to check for collision.
-     * @return {@code true} if Donkey is touching the platform, {@code false} otherwise.
+     * Puts Donkey back in the physics pass, e.g. after the platform under it changes.
      */
-    private boolean isTouchingPlatform(Platform platform) {
-        Rectangle donkeyBounds = getBoundingBox();
-        return donkeyBounds.intersects(platform.getBoundingBox());
+    public void wake() {
+        asleep = false;
+        restTicks = 0;
     }
 
     /**
-     * Draws Donkey on the screen.
+     * Checks whether Donkey has landed and is being skipped by the physics pass.
      */
-    public void draw() {
-        DONKEY_IMAGE.draw(x, y);
-//        drawBoundingBox(); // Uncomment for debugging
+    public boolean isAsleep() {
+        return asleep;
+    }
+
+    /**
+     * Gets the path of Donkey's image.
+     *
+     * @return The image path used to draw Donkey.
+     */
+    public String getImagePath() {
+        return DONKEY_IMAGE;
     }
 
     /**
      * Returns Donkey's bounding box for collision detection.
      *
-     * @return A {@link Rectangle} representing Donkey's bounding box.
+     * @return An {@link Aabb} representing Donkey's bounding box.
      */
-    public Rectangle getBoundingBox() {
-        return new Rectangle(
-                x - (DONKEY_IMAGE.getWidth() / 2),
-                y - (DONKEY_IMAGE.getHeight() / 2),
-                DONKEY_IMAGE.getWidth(),
-                DONKEY_IMAGE.getHeight()
-        );
+    public Aabb getBoundingBox() {
+        return bounds;
+    }
+
+    private void updateBounds() {
+        bounds.setCentered(x, y, WIDTH, HEIGHT);
     }
 
     /**
@@ -131,5 +153,62 @@ public class Donkey {
         return y;
     }
 
+    /**
+     * Remembers the current position as the start of the next tick, for render interpolation.
+     */
+    public void savePosition() {
+        prevY = y;
+    }
+
+    /**
+     * Gets the y-coordinate to draw at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderY(double alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
+    /**
+     * Gets how far Donkey has moved along y since the start of the tick, for swept collision tests.
+     */
+    public double getMoveY() {
+        return y - prevY;
+    }
+
+    /**
+     * Shows Donkey as the network host last sent him, on a client that does not simulate.
+     */
+    public void applyNetState(double newY, int newHealth, boolean newAsleep) {
+        prevY = y;
+        y = newY;
+        health = newHealth;
+        isDead = newHealth == 0;
+        asleep = newAsleep;
+        updateBounds();
+    }
+
+    /**
+     * Writes Donkey's changing state into a snapshot.
+     */
+    public void saveState(ByteBuffer out) {
+        out.putDouble(y).putDouble(prevY).putDouble(velocityY);
+        out.putInt(restTicks).putInt(health);
+        GameSnapshot.putBoolean(out, asleep);
+        GameSnapshot.putBoolean(out, isDead);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(ByteBuffer)}.
+     */
+    public void restoreState(ByteBuffer in) {
+        y = in.getDouble();
+        prevY = in.getDouble();
+        velocityY = in.getDouble();
+        restTicks = in.getInt();
+        health = in.getInt();
+        asleep = GameSnapshot.getBoolean(in);
+        isDead = GameSnapshot.getBoolean(in);
+        updateBounds();
+    }
+
 
 }
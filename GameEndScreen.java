@@ -7,6 +7,7 @@ import java.util.Properties;
  * and waits for the player to press SPACE to continue.
  */
 public class GameEndScreen {
+    private final String BACKGROUND_PATH; // Path of the background image
     private final Image BACKGROUND_IMAGE; // Background image for the end screen
 
     private final String GAME_WON_TXT;  // Message displayed when the player wins
@@ -15,9 +16,17 @@ public class GameEndScreen {
     private final String SCORE_MESSAGE;
 
     // Fonts for displaying win/loss message and final score
+    private final String FONT_PATH;
+    private final int STATUS_FONT_SIZE;
+    private final int SCORE_FONT_SIZE;
     private final Font STATUS_FONT;
     private final Font SCORE_FONT;
 
+    // Text that never changes while the screen is shown, measured once
+    private final TextLabel STATUS_LABEL;
+    private final TextLabel SCORE_LABEL;
+    private final TextLabel PROMPT_LABEL;
+
     // Vertical position for the win/loss message
     private final int STATUS_Y;
     private final int MESSAGE_DIFF_Y_1 = 60;
@@ -41,7 +50,8 @@ public class GameEndScreen {
      */
     public GameEndScreen(Properties gameProps, Properties msgProps, int finalScore, boolean win){
     // Load the background image and end-game messages from properties
-        this.BACKGROUND_IMAGE = new Image(gameProps.getProperty("backgroundImage"));
+        this.BACKGROUND_PATH = gameProps.getProperty("backgroundImage");
+        this.BACKGROUND_IMAGE = Assets.acquireImage(BACKGROUND_PATH);
         this.GAME_WON_TXT = msgProps.getProperty("gameEnd.won");
         this.GAME_LOST_TXT = msgProps.getProperty("gameEnd.lost");
         this.CONTINUE_GAME_TXT = msgProps.getProperty("gameEnd.continue");
@@ -51,14 +61,18 @@ public class GameEndScreen {
         this.STATUS_Y = Integer.parseInt(gameProps.getProperty("gameEnd.status.y"));
 
         // Load fonts for status message and final score
-        String fontFile = gameProps.getProperty("font");
-        this.STATUS_FONT = new Font(fontFile,
-                Integer.parseInt(gameProps.getProperty("gameEnd.status.fontSize")));
-        this.SCORE_FONT = new Font(fontFile,
-                Integer.parseInt(gameProps.getProperty("gameEnd.scores.fontSize")));
+        this.FONT_PATH = gameProps.getProperty("font");
+        this.STATUS_FONT_SIZE = Integer.parseInt(gameProps.getProperty("gameEnd.status.fontSize"));
+        this.SCORE_FONT_SIZE = Integer.parseInt(gameProps.getProperty("gameEnd.scores.fontSize"));
+        this.STATUS_FONT = Assets.acquireFont(FONT_PATH, STATUS_FONT_SIZE);
+        this.SCORE_FONT = Assets.acquireFont(FONT_PATH, SCORE_FONT_SIZE);
 
         this.isWon = win;
         this.finalScore = finalScore;
+
+        this.STATUS_LABEL = new TextLabel(STATUS_FONT, isWon ? GAME_WON_TXT : GAME_LOST_TXT);
+        this.SCORE_LABEL = new TextLabel(SCORE_FONT, SCORE_MESSAGE + " ", (int) this.finalScore);
+        this.PROMPT_LABEL = new TextLabel(SCORE_FONT, CONTINUE_GAME_TXT);
     }
 
     /**
@@ -73,24 +87,15 @@ public class GameEndScreen {
         BACKGROUND_IMAGE.drawFromTopLeft(0, 0);
 
         // 2) Display game outcome message ("Game Won" or "Game Lost")
-        String statusText = isWon ? GAME_WON_TXT : GAME_LOST_TXT;
-        STATUS_FONT.drawString(
-                statusText,
-                Window.getWidth() / 2.0 - STATUS_FONT.getWidth(statusText) / 2.0,
-                STATUS_Y
-        );
+        STATUS_LABEL.drawCentred(Window.getWidth() / 2.0, STATUS_Y);
 
         // 3) Display the final score below the status message
-        String finalScoreText = SCORE_MESSAGE + " " + (int) finalScore;
-        double finalScoreX = Window.getWidth() / 2.0 - SCORE_FONT.getWidth(finalScoreText) / 2.0;
         double finalScoreY = STATUS_Y + MESSAGE_DIFF_Y_1;
-        SCORE_FONT.drawString(finalScoreText, finalScoreX, finalScoreY);
+        SCORE_LABEL.drawCentred(Window.getWidth() / 2.0, finalScoreY);
 
         // 4) Display a prompt instructing the player to continue
-        String promptText = CONTINUE_GAME_TXT;
-        double promptX = Window.getWidth() / 2.0 - SCORE_FONT.getWidth(promptText) / 2.0;
         double promptY = Window.getHeight() - MESSAGE_DIFF_Y_2; // Positioned near the bottom
-        SCORE_FONT.drawString(promptText, promptX, promptY);
+        PROMPT_LABEL.drawCentred(Window.getWidth() / 2.0, promptY);
 
         // 5) Check if the player presses SPACE to exit the end screen
         if (input.wasPressed(Keys.SPACE)) {
@@ -100,4 +105,13 @@ public class GameEndScreen {
         // 6) Otherwise, remain on the game end screen
         return false;
     }
+
+    /**
+     * Releases the images and fonts this screen acquired. Call it when leaving the screen.
+     */
+    public void dispose() {
+        Assets.releaseImage(BACKGROUND_PATH);
+        Assets.releaseFont(FONT_PATH, STATUS_FONT_SIZE);
+        Assets.releaseFont(FONT_PATH, SCORE_FONT_SIZE);
+    }
 }
@@ -0,0 +1,104 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the game, so game stalls line up with GC and JIT activity
+ * in one recording (e.g. run with {@code -XX:StartFlightRecording=filename=game.jfr}).
+ * Events cost almost nothing unless a recording has them enabled; the per-tick and
+ * per-frame events record no stack trace to keep it that way, and are only created while
+ * {@link #TICK} or {@link #RENDER} is enabled, so the tick and the frame allocate nothing otherwise.
+ */
+public final class GameEvents {
+    /** The {@link Tick} event's type, to check whether a recording wants it before creating one. */
+    public static final EventType TICK = EventType.getEventType(Tick.class);
+    /** The {@link Render} event's type, to check whether a recording wants it before creating one. */
+    public static final EventType RENDER = EventType.getEventType(Render.class);
+
+    private GameEvents() {
+    }
+
+    @Name("sdk.Tick")
+    @Label("Simulation Tick")
+    @Category({"Shadow Donkey Kong", "Simulation"})
+    @Description("One fixed-length tick of the game world")
+    @StackTrace(false)
+    public static class Tick extends Event {
+        @Label("Level")
+        public int level;
+        @Label("Frame")
+        public int frame;
+        @Label("Barrels")
+        public int barrels;
+        @Label("Monkeys")
+        public int monkeys;
+        @Label("Bananas")
+        public int bananas;
+        @Label("Bullets")
+        public int bullets;
+        @Label("Ended")
+        public boolean ended;
+    }
+
+    @Name("sdk.Render")
+    @Label("Render Pass")
+    @Category({"Shadow Donkey Kong", "Rendering"})
+    @Description("Drawing one frame of a level, world and HUD")
+    @StackTrace(false)
+    public static class Render extends Event {
+        @Label("Level")
+        public int level;
+    }
+
+    @Name("sdk.LevelBuild")
+    @Label("Level Build")
+    @Category({"Shadow Donkey Kong", "Loading"})
+    @Description("Building a level's world and static layer, normally on the preloader thread")
+    public static class LevelBuild extends Event {
+        @Label("Level")
+        public int level;
+    }
+
+    @Name("sdk.LevelLoad")
+    @Label("Level Load")
+    @Category({"Shadow Donkey Kong", "Loading"})
+    @Description("Starting a level on the game thread: waiting for its build and creating its screen")
+    public static class LevelLoad extends Event {
+        @Label("Level")
+        public int level;
+        @Label("Waited For Build")
+        @Description("Whether the level was still being built when it was needed")
+        public boolean waitedForBuild;
+    }
+
+    @Name("sdk.ScreenTransition")
+    @Label("Screen Transition")
+    @Category({"Shadow Donkey Kong", "Screens"})
+    public static class ScreenTransition extends Event {
+        @Label("From")
+        public String from;
+        @Label("To")
+        public String to;
+    }
+
+    @Name("sdk.Collision")
+    @Label("Collision")
+    @Category({"Shadow Donkey Kong", "Simulation"})
+    @Description("A collision that changed the game: barrel destroyed, monkey killed or Donkey damaged")
+    public static class Collision extends Event {
+        @Label("Kind")
+        public String kind;
+        @Label("Level")
+        public int level;
+        @Label("Frame")
+        public int frame;
+        @Label("X")
+        public double x;
+        @Label("Y")
+        public double y;
+    }
+}
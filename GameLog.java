@@ -0,0 +1,292 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logger for the game loop. A log call does no I/O and allocates nothing: it stores the level,
+ * the time, a constant message and up to two numbers in the next slot of a preallocated ring,
+ * and a background thread formats and prints the slots in order. Messages below the level set
+ * by "log.level" in app.properties (DEBUG, INFO, WARN or ERROR; INFO by default) cost one branch.
+ * <pre>
+ * GameLog.info("Blaster collected! Bullets: {}", bulletCount);
+ * </pre>
+ * Each "{}" in a message is replaced by the next argument: the numbers first, then the value,
+ * if any. Arguments are inserted as they are and never searched for "{}" themselves, so a
+ * message should be a constant with everything that varies passed as an argument. A value such
+ * as a path or an address is kept by reference and turned into text on the printer thread, so
+ * it must not change after it is logged. Any thread may log; slots are claimed
+ * with a compare-and-set, never a lock. If the ring is full the message is dropped and counted,
+ * so a slow console can never stall a tick.
+ */
+public final class GameLog {
+
+    /**
+     * How important a message is, least first.
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    // Slots in the ring; a power of two so a position maps to a slot with a mask
+    private static final int CAPACITY = 1 << 13;
+    private static final int MASK = CAPACITY - 1;
+    // How long the printer sleeps when the ring is empty
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final Level[] LEVELS = Level.values();
+    private static final long START_NANOS = System.nanoTime();
+
+    // Each slot's sequence number says whose turn it is: position p is free to write when the
+    // sequence is p, and ready to print when it is p + 1
+    private static final AtomicLongArray SEQUENCES = new AtomicLongArray(CAPACITY);
+    private static final byte[] LEVEL_OF = new byte[CAPACITY];
+    private static final byte[] ARG_COUNT = new byte[CAPACITY];
+    private static final long[] TIME = new long[CAPACITY];
+    private static final String[] MESSAGE = new String[CAPACITY];
+    private static final long[] ARG0 = new long[CAPACITY];
+    private static final long[] ARG1 = new long[CAPACITY];
+    // Which of the numbers hold the bits of a double: 1 for the first, 2 for the second
+    private static final byte[] DOUBLES = new byte[CAPACITY];
+    private static final Object[] VALUE = new Object[CAPACITY];
+
+    private static final AtomicLong NEXT_WRITE = new AtomicLong();
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static long nextRead = 0; // Printer side only, guarded by the class lock
+    private static long droppedReported = 0;
+    private static final StringBuilder LINE = new StringBuilder(256);
+
+    private static volatile int threshold = parseLevel(IOUtils.getPropertyOrDefault("log.level", "INFO")).ordinal();
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            SEQUENCES.set(i, i);
+        }
+        Thread printer = new Thread(GameLog::printLoop, "game-log");
+        printer.setDaemon(true);
+        printer.start();
+        // Print whatever is left when the game exits
+        Runtime.getRuntime().addShutdownHook(new Thread(GameLog::flush, "game-log-flush"));
+    }
+
+    private GameLog() {
+    }
+
+    /**
+     * Reads a level name such as "debug" or "WARN".
+     *
+     * @throws IllegalArgumentException if the name is not a level.
+     */
+    public static Level parseLevel(String name) {
+        return Level.valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * Sets the least important level that is logged.
+     */
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Checks whether messages of a level are logged, for callers that must build a message first.
+     */
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message, 0, 0, 0);
+    }
+
+    public static void debug(String message, long arg) {
+        log(Level.DEBUG, message, 1, arg, 0);
+    }
+
+    public static void debug(String message, long arg0, long arg1) {
+        log(Level.DEBUG, message, 2, arg0, arg1);
+    }
+
+    public static void debug(String message, double arg0, double arg1) {
+        log(Level.DEBUG, message, 2, 3, Double.doubleToRawLongBits(arg0), Double.doubleToRawLongBits(arg1), null);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message, 0, 0, 0);
+    }
+
+    public static void info(String message, long arg) {
+        log(Level.INFO, message, 1, arg, 0);
+    }
+
+    public static void info(String message, long arg0, long arg1) {
+        log(Level.INFO, message, 2, arg0, arg1);
+    }
+
+    public static void info(String message, Object value) {
+        log(Level.INFO, message, 0, 0, 0, 0, value);
+    }
+
+    public static void info(String message, long arg, Object value) {
+        log(Level.INFO, message, 1, 0, arg, 0, value);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message, 0, 0, 0);
+    }
+
+    public static void warn(String message, long arg) {
+        log(Level.WARN, message, 1, arg, 0);
+    }
+
+    public static void warn(String message, Object value) {
+        log(Level.WARN, message, 0, 0, 0, 0, value);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message, 0, 0, 0);
+    }
+
+    /**
+     * Queues a message for printing.
+     *
+     * @param level    The message's level.
+     * @param message  The message, a constant; each "{}" is replaced by the next number.
+     * @param argCount How many of the numbers the message uses, from 0 to 2.
+     * @param arg0     The first number.
+     * @param arg1     The second number.
+     */
+    public static void log(Level level, String message, int argCount, long arg0, long arg1) {
+        log(level, message, argCount, 0, arg0, arg1, null);
+    }
+
+    // Bit k of doubles marks number k as the bits of a double; a value fills the placeholder after the numbers
+    private static void log(Level level, String message, int argCount, int doubles, long arg0, long arg1,
+                            Object value) {
+        if (level.ordinal() < threshold) {
+            return;
+        }
+        // 1) Claim the next free slot, or give up if the printer is a whole ring behind
+        long position = NEXT_WRITE.get();
+        int slot;
+        while (true) {
+            slot = (int) position & MASK;
+            long difference = SEQUENCES.get(slot) - position;
+            if (difference == 0) {
+                if (NEXT_WRITE.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = NEXT_WRITE.get();
+            } else if (difference < 0) {
+                DROPPED.incrementAndGet();
+                return;
+            } else {
+                position = NEXT_WRITE.get(); // Another thread took this slot
+            }
+        }
+
+        // 2) Fill it, then hand it to the printer
+        LEVEL_OF[slot] = (byte) level.ordinal();
+        ARG_COUNT[slot] = (byte) argCount;
+        TIME[slot] = System.nanoTime();
+        MESSAGE[slot] = message;
+        ARG0[slot] = arg0;
+        ARG1[slot] = arg1;
+        DOUBLES[slot] = (byte) doubles;
+        VALUE[slot] = value;
+        SEQUENCES.lazySet(slot, position + 1);
+    }
+
+    /**
+     * Returns how many messages were dropped because the ring was full.
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Prints every message queued so far. Logging threads are not held up.
+     */
+    public static synchronized void flush() {
+        while (printNext()) {
+            // Keep going until the ring is empty
+        }
+        long dropped = DROPPED.get();
+        if (dropped > droppedReported) {
+            System.out.println(format(Level.WARN, System.nanoTime(), (dropped - droppedReported)
+                    + " log messages dropped; the console could not keep up"));
+            droppedReported = dropped;
+        }
+        System.out.flush();
+    }
+
+    private static void printLoop() {
+        while (true) {
+            flush();
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    // Prints the next slot if it is ready; called with the class lock held
+    private static boolean printNext() {
+        int slot = (int) nextRead & MASK;
+        if (SEQUENCES.get(slot) != nextRead + 1) {
+            return false;
+        }
+        LINE.setLength(0);
+        appendPrefix(LEVELS[LEVEL_OF[slot]], TIME[slot]);
+        String message = MESSAGE[slot];
+        Object value = VALUE[slot];
+        int args = ARG_COUNT[slot] + (value != null ? 1 : 0);
+        int from = 0;
+        for (int k = 0; k < args; k++) {
+            int at = message.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            LINE.append(message, from, at);
+            if (k == ARG_COUNT[slot]) {
+                LINE.append(value);
+            } else {
+                long arg = k == 0 ? ARG0[slot] : ARG1[slot];
+                if ((DOUBLES[slot] & (1 << k)) != 0) {
+                    LINE.append(Double.longBitsToDouble(arg));
+                } else {
+                    LINE.append(arg);
+                }
+            }
+            from = at + 2;
+        }
+        LINE.append(message, from, message.length());
+        MESSAGE[slot] = null;
+        VALUE[slot] = null;
+
+        // Free the slot for the writer one lap ahead
+        SEQUENCES.lazySet(slot, nextRead + CAPACITY);
+        nextRead++;
+        System.out.println(LINE);
+        return true;
+    }
+
+    private static String format(Level level, long time, String message) {
+        LINE.setLength(0);
+        appendPrefix(level, time);
+        return LINE.append(message).toString();
+    }
+
+    // "12.345 INFO  " - seconds since startup, then the level
+    private static void appendPrefix(Level level, long time) {
+        long millis = (time - START_NANOS) / 1_000_000;
+        LINE.append(millis / 1000).append('.');
+        long fraction = millis % 1000;
+        if (fraction < 100) {
+            LINE.append('0');
+        }
+        if (fraction < 10) {
+            LINE.append('0');
+        }
+        LINE.append(fraction).append(' ').append(level.name());
+        for (int i = level.name().length(); i < 6; i++) {
+            LINE.append(' ');
+        }
+    }
+}
@@ -1,77 +1,76 @@
 import bagel.*;
 import bagel.util.Point;
-import java.util.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Properties;
 
 /**
  * Represents the main gameplay screen where the player controls Mario.
- * This class manages game objects, updates their states, and handles game logic.
+ * This class reads the keyboard, advances the {@link GameWorld} and draws it along with the HUD.
+ * Ticking and drawing are separate calls, so the game loop can run any number of
+ * fixed-length ticks per displayed frame.
  */
 public class GamePlayScreen {
-    private final Properties GAME_PROPS;
+    private final String FONT_PATH;
+    private final int FONT_SIZE;
     private final Font STATUS_FONT;
-    private final int MAX_FRAMES;
-
-    private Mario mario;
-    private Donkey donkey;
-    private Platform[] platforms;
-    private Ladder[] ladders;
-    private Barrel[] barrels;
-    private List<Hammer> hammers;
-    private List<Monkey> monkeys;
-    private List<Blaster> blasters;
-    private final List<Bullet> bullets;
-
-    private final Image background;
+
+    private final GameWorld world;
+    private final WorldRenderer renderer;
+
     private Point scoreDisplay;
     private Point timeDisplay;
     private Point bulletDisplayPoint;
     private Point donkeyHealthDisplayPoint;
 
 
-
-    private int currFrame = 0;
-    private boolean isGameOver = false;
-    private boolean isGameWon = false;
-    private int score = 0;
-    private int destroyedBarrels = 0;
-    private int jumpedBarrels = 0;
-    private int destroyedMonkeys = 0;
-    private int finalScore = 0;
-
-
     private final int SCORE_X;
     private final int SCORE_Y;
     private final int TIME_DISPLAY_DIFF_Y = 30;
     private final String SCORE_MESSAGE = "SCORE ";
     private final String TIME_MESSAGE = "Time Left ";
-    private int timeRemaining = 0;
     private final int currentLevel;
-    private final int startingScore;
 
+    // HUD text, rebuilt only when the number it shows changes
+    private final TextLabel scoreLabel;
+    private final TextLabel timeLabel;
+    private final TextLabel bulletLabel;
+    private final TextLabel donkeyHealthLabel;
+
+    // Keys held on the latest frame, and keys pressed since the last tick
+    private int heldControls = Controls.NONE;
+    private int pressedControls = Controls.NONE;
 
+    // Every tick's input, kept for replay when "input.record" is on; null otherwise
+    private final InputLog recording;
+    private final String recordDir;
 
+    // Network mode: the host sends state to remote players, a remote player shows the host's state
+    private NetServer host;
+    private NetClient remote;
 
     /**
-     * Constructs the gameplay screen, loading resources and initializing game objects.
+     * Constructs the gameplay screen for a level whose game objects are already built.
      *
      * @param gameProps Properties file containing game settings.
-     * @param level     Game level to start (1 or 2).
+     * @param level     The level to play, already built by a {@link LevelPreloader}.
+     * @param atlas     Atlas holding the game's sprites.
      */
-    public GamePlayScreen(Properties gameProps, int level, int startingScore) {
-        this.score = startingScore;
-        this.startingScore = startingScore;
-        this.GAME_PROPS = gameProps;
-        this.currentLevel = level;
+    public GamePlayScreen(Properties gameProps, LevelPreloader.PreparedLevel level, TextureAtlas atlas) {
+        this.world = level.world();
+        this.currentLevel = world.getCurrentLevel();
 
         // General config
-        this.MAX_FRAMES = Integer.parseInt(gameProps.getProperty("gamePlay.maxFrames"));
         this.SCORE_X = Integer.parseInt(gameProps.getProperty("gamePlay.score.x"));
         this.SCORE_Y = Integer.parseInt(gameProps.getProperty("gamePlay.score.y"));
-        this.STATUS_FONT = new Font(
-                gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("gamePlay.score.fontSize"))
-        );
-        this.background = new Image(gameProps.getProperty("backgroundImage"));
+        this.FONT_PATH = gameProps.getProperty("font");
+        this.FONT_SIZE = Integer.parseInt(gameProps.getProperty("gamePlay.score.fontSize"));
+        this.STATUS_FONT = Assets.acquireFont(FONT_PATH, FONT_SIZE);
+        this.renderer = new WorldRenderer(level.staticLayer(), atlas);
 
         // UI display points
         this.scoreDisplay = new Point(SCORE_X, SCORE_Y);
@@ -87,251 +86,171 @@ public class GamePlayScreen {
                 Double.parseDouble(coords[0].trim()) + TIME_DISPLAY_DIFF_Y
         );
 
-        // Game object lists
-        this.monkeys = new ArrayList<>();
-        this.hammers = new ArrayList<>();
-        this.blasters = new ArrayList<>();
-        this.bullets = new ArrayList<>();
+        this.scoreLabel = new TextLabel(STATUS_FONT, SCORE_MESSAGE, world.getScore());
+        this.timeLabel = new TextLabel(STATUS_FONT, TIME_MESSAGE, world.getSecondsLeft());
+        this.bulletLabel = new TextLabel(STATUS_FONT, "BULLET ", world.getMario().getBulletCount());
+        this.donkeyHealthLabel = new TextLabel(STATUS_FONT, "DONKEY HEALTH ", world.getDonkey().getHealth());
 
-        // Initialize all game objects for the given level
-        initializeGameObjects(level);
-        System.out.println("HEALTH UI AT: x=" + donkeyHealthDisplayPoint.x + ", y=" + donkeyHealthDisplayPoint.y);
-        System.out.println("BULLET UI AT: x=" + bulletDisplayPoint.x + ", y=" + bulletDisplayPoint.y);
+        // Input recording
+        boolean record = Boolean.parseBoolean(gameProps.getProperty("input.record", "false"));
+        this.recording = record ? new InputLog(currentLevel, world.getScore()) : null;
+        this.recordDir = gameProps.getProperty("input.recordDir", "recordings");
+        GameLog.debug("HEALTH UI AT: x={}, y={}", donkeyHealthDisplayPoint.x, donkeyHealthDisplayPoint.y);
+        GameLog.debug("BULLET UI AT: x={}, y={}", bulletDisplayPoint.x, bulletDisplayPoint.y);
 
     }
 
 
     /**
-     * Initializes game objects such as Mario, Donkey Kong, barrels, ladders, platforms, and the hammer.
+     * Reads this frame's keyboard state into {@link Controls} flags for the next tick.
+     * Key presses are kept until a tick consumes them, so a press on a frame
+     * that runs no ticks is not lost.
+     *
+     * @param input The current player input.
      */
-    private void initializeGameObjects(int level) {
-        // 1. Mario & Donkey
-        mario = new Mario(level);
-        donkey = new Donkey(level);
-
-        // 2. Barrels
-        String barrelKey = "barrel.level" + level + ".count";
-        int barrelCount = Integer.parseInt(IOUtils.getProperty(barrelKey));
-        barrels = new Barrel[barrelCount];
-        for (int i = 1; i <= barrelCount; i++) {
-            barrels[i - 1] = new Barrel(level, i);
-        }
-
-        // 3. Ladders
-        String ladderKey = "ladder.level" + level + ".count";
-        int ladderCount = Integer.parseInt(IOUtils.getProperty(ladderKey));
-        ladders = new Ladder[ladderCount];
-        for (int i = 1; i <= ladderCount; i++) {
-            ladders[i - 1] = new Ladder(level, i);
-        }
-
-        // 4. Platforms
-        String platformData = GAME_PROPS.getProperty("platforms.level" + level);
-        if (platformData != null && !platformData.isEmpty()) {
-            String[] platformEntries = platformData.split(";");
-            platforms = new Platform[platformEntries.length];
-            for (int i = 0; i < platformEntries.length; i++) {
-                String[] coords = platformEntries[i].trim().split(",");
-                platforms[i] = new Platform(Double.parseDouble(coords[0].trim()), Double.parseDouble(coords[1].trim()));
-            }
-        } else {
-            platforms = new Platform[0];
-        }
-
-        // 5. Hammers
-        int hammerCount = Integer.parseInt(IOUtils.getPropertyOrDefault("hammer.level" + level + ".count", "0"));
-        hammers = new ArrayList<>();
-        for (int i = 1; i <= hammerCount; i++) {
-            hammers.add(new Hammer(level, i));
-        }
-
-        // 6. Blasters
-        int blasterCount = Integer.parseInt(IOUtils.getPropertyOrDefault("blaster.level" + level + ".count", "0"));
-        blasters = new ArrayList<>();
-        for (int i = 1; i <= blasterCount; i++) {
-            blasters.add(new Blaster(level, i));
-        }
-
-
-        // 7. Monkeys
-        monkeys = new ArrayList<>();
-        int normalCount = Integer.parseInt(IOUtils.getPropertyOrDefault("normalMonkey.level" + level + ".count", "0"));
-        for (int i = 1; i <= normalCount; i++) {
-            monkeys.add(new NormalMonkey(IOUtils.getProperty("normalMonkey.level" + level + "." + i)));
-        }
-
-
-        int intelligentCount = Integer.parseInt(IOUtils.getPropertyOrDefault("intelligentMonkey.level" + level + ".count", "0"));
-        for (int i = 1; i <= intelligentCount; i++) {
-            monkeys.add(new IntelligentMonkey(IOUtils.getProperty("intelligentMonkey.level" + level + "." + i)));
-        }
-
-
+    public void readInput(Input input) {
+        int held = Controls.NONE;
+        if (input.isDown(Keys.LEFT)) held |= Controls.LEFT;
+        if (input.isDown(Keys.RIGHT)) held |= Controls.RIGHT;
+        if (input.isDown(Keys.UP)) held |= Controls.UP;
+        if (input.isDown(Keys.DOWN)) held |= Controls.DOWN;
+        heldControls = held;
+
+        if (input.wasPressed(Keys.SPACE)) pressedControls |= Controls.JUMP;
+        if (input.wasPressed(Keys.S)) pressedControls |= Controls.SHOOT;
     }
+
     /**
-         * Updates game state each frame.
-         *
-         * @param input The current player input.
-         * @return {@code true} if the game ends, {@code false} otherwise.
-         */
-    public boolean update(Input input) {
-        currFrame++;
-
-        // 1) Draw background
-        background.drawFromTopLeft(0, 0);
-
-        // 2) Draw platforms
-        for (Platform platform : platforms) {
-            platform.draw();
+     * Advances the simulation by one fixed-length tick using the latest input.
+     * When recording, the input is logged and the log is saved once the level ends.
+     *
+     * @return {@code true} if the game ends, {@code false} otherwise.
+     */
+    public boolean tick() {
+        int controls = heldControls | pressedControls;
+        pressedControls = Controls.NONE;
+        if (remote != null) {
+            return followHost(controls);
         }
-
-        // 3) Update ladders
-        for (Ladder ladder : ladders) {
-            ladder.update(platforms);
+        if (host != null) {
+            controls |= host.receive();
         }
-
-        // 4) Update and draw barrels
-        for (Barrel barrel : barrels) {
-            barrel.update(platforms);
-
-            if (!barrel.isDestroyed() && mario.isTouchingBarrel(barrel)) {
-                if (mario.hasHammer()) {
-                    barrel.destroy();
-                    incrementDestroyedBarrels();
-                    score += 100;
-                } else {
-                    isGameOver = true;
-                }
-            }
-
-            if (mario.jumpOver(barrel)) {
-                incrementJumpedBarrels();
-                score += 30;
-            }
-
-            barrel.draw();
+        boolean ended = world.tick(controls);
+        if (host != null) {
+            host.send();
         }
-
-        // 5) Draw hammers
-        for (Hammer hammer : hammers) {
-            if (!hammer.isCollected()) {
-                hammer.draw();
+        if (recording != null) {
+            recording.record(controls);
+            if (ended) {
+                saveRecording();
             }
         }
+        return ended;
+    }
 
-        // 6) Draw blasters
-        for (Blaster blaster : blasters) {
-            if (!blaster.isCollected()) {
-                blaster.draw();
-            }
-        }
-
-        // 7) Update and draw donkey
-        donkey.update(platforms);
-        donkey.draw();
-
-        // 8) Update monkeys
-        for (Monkey monkey : monkeys) {
-            monkey.update(platforms);
-        }
-
-        // 9) Update bananas from intelligent monkeys
-        for (Monkey monkey : monkeys) {
-            if (monkey instanceof IntelligentMonkey im) {
-                Iterator<Banana> bananaIterator = im.getBananas().iterator();
-                while (bananaIterator.hasNext()) {
-                    Banana banana = bananaIterator.next();
-                    banana.update();
-                    banana.draw();
-
-                    // Remove banana if expired
-                    if (banana.hasExpired()) {
-                        bananaIterator.remove();
-                        continue;
-                    }
-
-                    // Mario hit by banana: only if no hammer or blaster
-                    if (banana.getBoundingBox().intersects(mario.getBoundingBox())){
-                        isGameOver = true;
-                    }
-                }
-            }
-        }
+    /**
+     * Hosts this level for remote players: their buttons are combined with the local ones
+     * and every tick's state is sent to them.
+     *
+     * @param server The open host socket, shared by every level.
+     */
+    public void hostOn(NetServer server) {
+        this.host = server;
+        server.beginLevel(world);
+    }
 
+    /**
+     * Plays this level as a remote player: the local buttons go to the host and the
+     * world shows the host's state instead of being simulated. Nothing is recorded.
+     *
+     * @param client The open socket to the host, shared by every level.
+     */
+    public void joinTo(NetClient client) {
+        this.remote = client;
+    }
 
-        // 10) Update and draw bullets
-        List<Bullet> toRemove = new ArrayList<>();
-        for (Bullet bullet : bullets) {
-            bullet.update(platforms, Window.getWidth());
-            bullet.draw();
-
-            // Check collision with monkeys
-            for (Monkey monkey : monkeys) {
-                if (!monkey.isDead() && bullet.getBoundingBox().intersects(monkey.getBoundingBox())) {
-                    monkey.die();
-                    incrementDestroyedMonkeys();
-                    score += 100;
-                    bullet.markSpent();
-                }
-            }
+    // The level ends when the host's does, or when the host has moved on to another level
+    private boolean followHost(int controls) {
+        remote.tick(controls);
+        remote.applyTo(world);
+        return world.isGameOver() || world.hasWon() || world.isLevelCompleted()
+                || remote.getLevel() != currentLevel;
+    }
 
-            // Check collision with Donkey
-            if (!donkey.isDead() && bullet.getBoundingBox().intersects(donkey.getBoundingBox())) {
-                donkey.takeDamage();
-                bullet.markSpent();
+    /**
+     * Creates a snapshot sized for this level, to be filled by {@link #saveState(GameSnapshot)}.
+     */
+    public GameSnapshot createSnapshot() {
+        return new GameSnapshot(world);
+    }
 
-                if (donkey.isDead()) {
-                    isGameWon = true;// Mark game as won
-                    computeFinalScore(false);
-                }
-            }
+    /**
+     * Saves the whole game state into a snapshot, without allocating.
+     */
+    public void saveState(GameSnapshot snapshot) {
+        world.saveState(snapshot);
+    }
 
-            // Queue bullet for removal if spent
-            if (bullet.isSpent()) {
-                toRemove.add(bullet);
-            }
+    /**
+     * Rolls the game back (or forward) to a snapshot of this level. Key presses not yet
+     * consumed are dropped, and a recording is cut back to the snapshot's tick.
+     *
+     * @throws IllegalArgumentException if the snapshot is of a different level,
+     *                                  or is ahead of a recording in progress.
+     */
+    public void restoreState(GameSnapshot snapshot) {
+        if (recording != null && snapshot.getFrame() > recording.getTickCount()) {
+            throw new IllegalArgumentException("Snapshot of tick " + snapshot.getFrame()
+                    + " is ahead of the recording at tick " + recording.getTickCount());
         }
-        // Remove bullets that hit something or expired
-        bullets.removeAll(toRemove);
-
-
-        // 11) Update Mario
-        mario.update(input, ladders, platforms, hammers, blasters, bullets);
-
-        // 12) Mario vs Monkey collision
-        for (Monkey monkey : monkeys) {
-            if (!monkey.isDead() && mario.getBoundingBox().intersects(monkey.getBoundingBox())) {
-                if (mario.hasHammer()) {
-                    monkey.die();
-                    incrementDestroyedMonkeys();
-                    score += 100;
-                } else {
-                    isGameOver = true;
-                }
-            }
+        world.restoreState(snapshot);
+        renderer.restored(world);
+        pressedControls = Controls.NONE;
+        if (recording != null) {
+            recording.truncate(snapshot.getFrame());
         }
+    }
 
-        // 13) Win or lose on donkey touch
-        if (mario.hasReached(donkey)) {
-            if (mario.hasHammer() || donkey.isDead()) {
-                isGameWon = true;// Win condition met
-            } else {
-                isGameOver = true;
-            }
+    // Saves the input log as "<recordDir>/level<N>-<date>-<time>.sdkr"; a recording that cannot
+    // be saved is reported and dropped, so the level still ends normally
+    private void saveRecording() {
+        recording.setEndScore(world.getScore());
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path dir = Path.of(recordDir);
+        Path file = dir.resolve("level" + currentLevel + "-" + stamp + ".sdkr");
+        try {
+            Files.createDirectories(dir);
+            recording.write(file);
+            GameLog.info("Recorded {} ticks to {}", recording.getTickCount(), file);
+        } catch (IOException | UncheckedIOException e) {
+            GameLog.warn("Could not save recording to {}", file);
         }
+    }
 
-        if (checkingGameTime()) {
-            isGameOver = true;
+    /**
+     * Draws the world and the HUD.
+     *
+     * @param alpha How far the display is through the next tick, from 0 to 1.
+     */
+    public void render(double alpha) {
+        GameEvents.Render event = GameEvents.RENDER.isEnabled() ? new GameEvents.Render() : null;
+        if (event != null) {
+            event.begin();
         }
 
-        // 14) Draw UI
+        // 1) Draw the world
+        renderer.draw(world, alpha);
+
+        // 2) Draw UI
+        long t = PhaseTimers.start();
         displayInfo();
         displayCombatInfo();
+        PhaseTimers.lap(PhaseTimers.Phase.HUD, t);
 
-        // 15) Return game end condition
-        return isGameOver || isGameWon || isLevelCompleted();
-
-
+        if (event != null) {
+            event.level = currentLevel;
+            event.commit();
+        }
     }
 
 
@@ -339,13 +258,11 @@ public class GamePlayScreen {
      * Displays the player's score & time left on the screen.
      */
     public void displayInfo() {
-        STATUS_FONT.drawString(SCORE_MESSAGE + score, SCORE_X, SCORE_Y);
-
-        int secondsLeft = (MAX_FRAMES - currFrame) / 60;
-        STATUS_FONT.drawString(TIME_MESSAGE + secondsLeft, SCORE_X, SCORE_Y + TIME_DISPLAY_DIFF_Y);
+        scoreLabel.setValue(world.getScore());
+        scoreLabel.draw(SCORE_X, SCORE_Y);
 
-        // update timeRemaining for final score
-        timeRemaining = secondsLeft;
+        timeLabel.setValue(world.getSecondsLeft());
+        timeLabel.draw(SCORE_X, SCORE_Y + TIME_DISPLAY_DIFF_Y);
     }
 
     /**
@@ -355,78 +272,43 @@ public class GamePlayScreen {
         if (currentLevel != 2) return;
 
         // Always show bullet count (even if not picked up)
-        int bulletCount = mario.getBulletCount();  // defaults to 0 if not holding
-        STATUS_FONT.drawString("BULLET " + bulletCount,
-                bulletDisplayPoint.x, bulletDisplayPoint.y);
+        bulletLabel.setValue(world.getMario().getBulletCount());  // defaults to 0 if not holding
+        bulletLabel.draw(bulletDisplayPoint.x, bulletDisplayPoint.y);
 
         // Show Donkey health only if Donkey is alive
+        Donkey donkey = world.getDonkey();
         if (donkey != null && !donkey.isDead()) {
-            STATUS_FONT.drawString("DONKEY HEALTH " + donkey.getHealth(),
-                    donkeyHealthDisplayPoint.x, donkeyHealthDisplayPoint.y);
+            donkeyHealthLabel.setValue(donkey.getHealth());
+            donkeyHealthLabel.draw(donkeyHealthDisplayPoint.x, donkeyHealthDisplayPoint.y);
         }
     }
 
     /**
-     * Determines whether Mario has completed the level.
-     * He must reach Donkey Kong while holding the hammer OR Donkey is dead.
+     * Releases the images and fonts this screen acquired. Call it when leaving the screen.
      */
-    public boolean isLevelCompleted() {
-        return mario.hasReached(donkey) && (mario.hasHammer() || donkey.isDead());
+    public void dispose() {
+        renderer.dispose();
+        Assets.releaseFont(FONT_PATH, FONT_SIZE);
     }
 
     /**
-     * Checks if the time limit has been exceeded.
+     * Returns the world this screen is playing.
      */
-    public boolean checkingGameTime() {
-        return currFrame >= MAX_FRAMES;
-    }
-
-
-
-    /**
-     * Increments score counters.
-     */
-    public void incrementDestroyedBarrels() {
-        destroyedBarrels++;
-    }
-
-    public void incrementJumpedBarrels() {
-        jumpedBarrels++;
-    }
-
-    public void incrementDestroyedMonkeys() {
-        destroyedMonkeys++;
-    }
-
-    /**
-     * Final score formula: 100 per barrel destroyed,
-     * 30 per barrel jumped, 3 per second left, 100 per monkey killed.
-     * If player dies, finalScore is 0.
-     * Includes score from previous level (startingScore).
-     */
-    public void computeFinalScore(boolean playerDied) {
-        if (playerDied) {
-            finalScore = 0;
-        } else {
-            finalScore = startingScore
-                    + (100 * destroyedBarrels)
-                    + (30 * jumpedBarrels)
-                    + (3 * timeRemaining)
-                    + (100 * destroyedMonkeys);
-        }
+    public GameWorld getWorld() {
+        return world;
     }
 
     public int getFinalScore() {
-        return finalScore;
+        return world.getFinalScore();
     }
 
 
     public boolean hasWon() {
-        return isGameWon;
+        return world.hasWon() || remote != null && remote.getLevel() > currentLevel;
     }
 
     public int getScore() {
-        return score;
+        return world.getScore();
     }
 
 
@@ -0,0 +1,136 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The complete changing state of one {@link GameWorld}, held in a single preallocated byte buffer.
+ * A snapshot is sized once for its world, from the fixed number of objects and the pool capacities,
+ * so saving and restoring never allocate: every body column is copied in and out as one run,
+ * and everything that can be derived (bounding boxes, sprite sizes, the broadphase) is rebuilt
+ * instead of stored. Snapshots are meant to be reused, e.g. as a ring of recent ticks for rollback.
+ *
+ * Layout: a header identifying the world's shape, then the world's counters, Mario, Donkey,
+ * ladders, barrels, hammers, blasters, monkeys, bananas and bullets, each as written by
+ * its own {@code saveState}.
+ */
+public final class GameSnapshot {
+    private final ByteBuffer buffer;
+    private int frame = -1;
+
+    /**
+     * Allocates a snapshot large enough for any state of the given world.
+     *
+     * @param world The world, or another built from the same level and pool sizes.
+     */
+    public GameSnapshot(GameWorld world) {
+        this.buffer = ByteBuffer.allocate(world.getStateBytes());
+    }
+
+    /**
+     * Returns the tick the snapshot was taken after, or -1 if it has not been written.
+     */
+    public int getFrame() {
+        return frame;
+    }
+
+    /**
+     * Returns the number of bytes the last save used.
+     */
+    public int getSize() {
+        return frame < 0 ? 0 : buffer.limit();
+    }
+
+    /**
+     * Returns the number of bytes allocated.
+     */
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Makes this snapshot a copy of another of the same world.
+     *
+     * @param other The snapshot to copy.
+     * @throws IllegalArgumentException if the other snapshot does not fit.
+     */
+    public void copyFrom(GameSnapshot other) {
+        if (other.getSize() > buffer.capacity()) {
+            throw new IllegalArgumentException("Snapshot of " + other.getSize()
+                    + " bytes does not fit in " + buffer.capacity());
+        }
+        buffer.clear();
+        buffer.put(other.buffer.array(), 0, other.getSize());
+        buffer.flip();
+        frame = other.frame;
+    }
+
+    // Clears the buffer for a save
+    ByteBuffer beginSave() {
+        buffer.clear();
+        return buffer;
+    }
+
+    // Marks the end of a save taken after the given tick
+    void endSave(int savedFrame) {
+        buffer.flip();
+        frame = savedFrame;
+    }
+
+    // Rewinds the buffer for a restore
+    ByteBuffer beginRestore() {
+        if (frame < 0) {
+            throw new IllegalStateException("Snapshot has not been saved");
+        }
+        buffer.rewind();
+        return buffer;
+    }
+
+    /**
+     * Writes a flag as one byte.
+     */
+    public static void putBoolean(ByteBuffer out, boolean value) {
+        out.put(value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Reads a flag written by {@link #putBoolean(ByteBuffer, boolean)}.
+     */
+    public static boolean getBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    /**
+     * Writes the first {@code count} values of a column. A plain loop over the heap buffer
+     * compiles to straight stores and, unlike a view buffer, allocates nothing.
+     */
+    public static void putDoubles(ByteBuffer out, double[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            out.putDouble(values[i]);
+        }
+    }
+
+    /**
+     * Reads {@code count} values into the start of a column.
+     */
+    public static void getDoubles(ByteBuffer in, double[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getDouble();
+        }
+    }
+
+    /**
+     * Writes the first {@code count} values of a column.
+     */
+    public static void putInts(ByteBuffer out, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            out.putInt(values[i]);
+        }
+    }
+
+    /**
+     * Reads {@code count} values into the start of a column.
+     */
+    public static void getInts(ByteBuffer in, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getInt();
+        }
+    }
+}
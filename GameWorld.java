@@ -0,0 +1,719 @@
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * The headless game model for a single level.
+ * It owns every game object and advances the simulation one tick at a time,
+ * without touching the window, images or fonts, so levels can also be run
+ * on machines without a display. Drawing is done separately by {@link WorldRenderer}.
+ */
+public class GameWorld {
+    private final int MAX_FRAMES;
+    private final double WIDTH;
+    private final double HEIGHT;
+
+    private Mario mario;
+    private Donkey donkey;
+    private Platform[] platforms;
+    private PlatformIndex platformIndex;
+    private Ladder[] ladders;
+    private Barrels barrels;
+    private List<Hammer> hammers;
+    private List<Monkey> monkeys;
+    private List<Blaster> blasters;
+    private final Bullets bullets;
+    private final Bananas bananas;
+
+    // Broadphase for enemy and hazard collisions, rebuilt every tick
+    private static final double BROADPHASE_CELL_SIZE = 64;
+    private static final int KIND_BITS = 2;
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    private static final int KIND_MONKEY = 0;
+    private static final int KIND_DONKEY = 1;
+    private static final int KIND_BARREL = 2;
+    private static final int KIND_BANANA = 3;
+    private final SpatialHashGrid broadphase = new SpatialHashGrid(BROADPHASE_CELL_SIZE);
+
+    private int currFrame = 0;
+    private boolean isGameOver = false;
+    private DeathCause deathCause = DeathCause.NONE;
+    private boolean isGameWon = false;
+    private int score = 0;
+    private int destroyedBarrels = 0;
+    private int jumpedBarrels = 0;
+    private int destroyedMonkeys = 0;
+    private int finalScore = 0;
+
+    private int timeRemaining = 0;
+    private final int currentLevel;
+    private int startingScore;
+
+    /**
+     * Simulation ticks per second of game time. Physics constants are per tick,
+     * and the countdown is measured in ticks, so both are independent of the display rate.
+     */
+    public static final int TICKS_PER_SECOND = 60;
+
+    // Snapshot layout: eight shape fields, then eight counters, the death cause and two flags
+    private static final int HEADER_BYTES = 8 * Integer.BYTES;
+    private static final int COUNTERS_BYTES = 8 * Integer.BYTES + 3;
+    private static final DeathCause[] DEATH_CAUSES = DeathCause.values();
+
+    /**
+     * Constructs the world for a level and initializes all game objects.
+     *
+     * @param level         The parsed level to play.
+     * @param startingScore Score carried over from the previous level.
+     */
+    public GameWorld(LevelConfig level, int startingScore) {
+        this.score = startingScore;
+        this.startingScore = startingScore;
+        this.currentLevel = level.getLevel();
+
+        this.MAX_FRAMES = level.getMaxFrames();
+        this.WIDTH = level.getWidth();
+        this.HEIGHT = level.getHeight();
+
+        // Game object lists
+        this.monkeys = new ArrayList<>();
+        this.hammers = new ArrayList<>();
+        this.blasters = new ArrayList<>();
+        this.bullets = new Bullets(Integer.parseInt(IOUtils.getPropertyOrDefault("pool.bullets", "256")));
+        this.bananas = new Bananas(Integer.parseInt(IOUtils.getPropertyOrDefault("pool.bananas", "256")));
+
+        // Initialize all game objects for the given level
+        initializeGameObjects(level);
+    }
+
+    /**
+     * Initializes game objects such as Mario, Donkey Kong, barrels, ladders, platforms, and the hammer.
+     */
+    private void initializeGameObjects(LevelConfig level) {
+        // 1. Mario & Donkey
+        mario = new Mario(level.getMario().x(), level.getMario().y(), WIDTH, HEIGHT);
+        donkey = new Donkey(level.getDonkey().x(), level.getDonkey().y());
+
+        // 2. Barrels
+        barrels = new Barrels(level.getBarrels());
+
+        // 3. Ladders
+        List<LevelConfig.Position> ladderPositions = level.getLadders();
+        ladders = new Ladder[ladderPositions.size()];
+        for (int i = 0; i < ladders.length; i++) {
+            ladders[i] = new Ladder(ladderPositions.get(i).x(), ladderPositions.get(i).y());
+        }
+
+        // 4. Platforms
+        List<LevelConfig.Position> platformPositions = level.getPlatforms();
+        platforms = new Platform[platformPositions.size()];
+        for (int i = 0; i < platforms.length; i++) {
+            platforms[i] = new Platform(platformPositions.get(i).x(), platformPositions.get(i).y());
+        }
+        // Platforms never move, so index them once for every ground and wall probe
+        platformIndex = new PlatformIndex(platforms);
+
+        // 5. Hammers
+        for (LevelConfig.Position position : level.getHammers()) {
+            hammers.add(new Hammer(position.x(), position.y()));
+        }
+
+        // 6. Blasters
+        for (LevelConfig.Position position : level.getBlasters()) {
+            blasters.add(new Blaster(position.x(), position.y()));
+        }
+
+        // 7. Monkeys
+        for (LevelConfig.MonkeyConfig config : level.getNormalMonkeys()) {
+            monkeys.add(new NormalMonkey(config));
+        }
+        for (LevelConfig.MonkeyConfig config : level.getIntelligentMonkeys()) {
+            monkeys.add(new IntelligentMonkey(config, bananas, monkeys.size()));
+        }
+    }
+
+    /**
+     * Advances the simulation by one tick.
+     *
+     * @param buttons The player's input for this tick, as {@link Controls} flags.
+     * @return {@code true} if the game ends, {@code false} otherwise.
+     */
+    public boolean tick(int buttons) {
+        currFrame++;
+        GameEvents.Tick event = GameEvents.TICK.isEnabled() ? new GameEvents.Tick() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long tickStart = PhaseTimers.start();
+        long t = tickStart;
+
+        // 0) Remember where everything starts this tick, so the renderer can interpolate
+        savePositions();
+        t = PhaseTimers.lap(PhaseTimers.Phase.SAVE_POSITIONS, t);
+
+        // 1) Update ladders
+        for (Ladder ladder : ladders) {
+            ladder.update(platformIndex);
+        }
+        t = PhaseTimers.lap(PhaseTimers.Phase.LADDERS, t);
+
+        // 2) Update barrels
+        barrels.update(platformIndex);
+        for (int i = 0; i < barrels.size(); i++) {
+            if (mario.jumpOver(barrels, i)) {
+                incrementJumpedBarrels();
+                score += 30;
+            }
+        }
+        t = PhaseTimers.lap(PhaseTimers.Phase.BARRELS, t);
+
+        // 3) Update donkey
+        donkey.update(platformIndex);
+        t = PhaseTimers.lap(PhaseTimers.Phase.DONKEY, t);
+
+        // 4) Update monkeys
+        for (int i = 0; i < monkeys.size(); i++) {
+            monkeys.get(i).update(platformIndex);
+        }
+        t = PhaseTimers.lap(PhaseTimers.Phase.MONKEYS, t);
+
+        // 5) Update bananas from intelligent monkeys, removing expired ones
+        bananas.update(monkeys);
+        t = PhaseTimers.lap(PhaseTimers.Phase.BANANAS, t);
+
+        // 6) Rebuild the broadphase now that every enemy has moved
+        rebuildBroadphase();
+        t = PhaseTimers.lap(PhaseTimers.Phase.BROADPHASE, t);
+
+        // 7) Barrels and bananas vs Mario (before he moves this tick), anywhere along their moves
+        Aabb marioBounds = mario.getBoundingBox();
+        int candidates = querySwept(marioBounds, mario.getMoveX(), mario.getMoveY());
+        for (int i = 0; i < candidates; i++) {
+            int id = broadphase.getResult(i);
+            int index = id >> KIND_BITS;
+            switch (id & KIND_MASK) {
+                case KIND_BARREL -> {
+                    if (!barrels.isDestroyed(index) && hitDuringTick(barrels, index, marioBounds,
+                            mario.getMoveX(), mario.getMoveY())) {
+                        if (mario.hasHammer()) {
+                            barrels.destroy(index);
+                            incrementDestroyedBarrels();
+                            score += 100;
+                            recordCollision("barrel destroyed", barrels.getX(index), barrels.getY(index));
+                        } else {
+                            lose(DeathCause.BARREL);
+                        }
+                    }
+                }
+                case KIND_BANANA -> {
+                    // Mario hit by banana: only if no hammer or blaster
+                    if (hitDuringTick(bananas, index, marioBounds, mario.getMoveX(), mario.getMoveY())) {
+                        lose(DeathCause.BANANA);
+                    }
+                }
+                default -> { }
+            }
+        }
+        t = PhaseTimers.lap(PhaseTimers.Phase.HAZARDS, t);
+
+        // 8) Update bullets
+        bullets.update(platformIndex, WIDTH);
+        resolveBulletHits();
+        t = PhaseTimers.lap(PhaseTimers.Phase.BULLETS, t);
+
+        // 9) Update Mario
+        mario.update(buttons, ladders, platformIndex, hammers, blasters, bullets);
+        t = PhaseTimers.lap(PhaseTimers.Phase.MARIO, t);
+
+        // 10) Mario vs Monkey collision, anywhere along both of their moves
+        marioBounds = mario.getBoundingBox();
+        candidates = querySwept(marioBounds, mario.getMoveX(), mario.getMoveY());
+        for (int i = 0; i < candidates; i++) {
+            int id = broadphase.getResult(i);
+            if ((id & KIND_MASK) != KIND_MONKEY) {
+                continue;
+            }
+            Monkey monkey = monkeys.get(id >> KIND_BITS);
+            if (!monkey.isDead() && hitDuringTick(marioBounds, mario.getMoveX(), mario.getMoveY(),
+                    monkey.getBoundingBox(), monkey.getMoveX(), monkey.getMoveY())) {
+                if (mario.hasHammer()) {
+                    monkey.die();
+                    incrementDestroyedMonkeys();
+                    score += 100;
+                    recordCollision("monkey killed", monkey.getX(), monkey.getY());
+                } else {
+                    lose(DeathCause.MONKEY);
+                }
+            }
+        }
+        t = PhaseTimers.lap(PhaseTimers.Phase.MONKEY_HITS, t);
+
+        // 11) Win or lose on donkey touch
+        if (mario.hasReached(donkey)) {
+            if (mario.hasHammer() || donkey.isDead()) {
+                isGameWon = true;// Win condition met
+            } else {
+                lose(DeathCause.DONKEY);
+            }
+        }
+
+        if (checkingGameTime()) {
+            lose(DeathCause.TIME_UP);
+        }
+
+        // 12) Update the countdown used for the final score
+        timeRemaining = getSecondsLeft();
+        PhaseTimers.lap(PhaseTimers.Phase.WIN_CHECK, t);
+        PhaseTimers.lap(PhaseTimers.Phase.TICK, tickStart);
+
+        // 13) Return game end condition
+        boolean ended = isGameOver || isGameWon || isLevelCompleted();
+        if (event != null && event.shouldCommit()) {
+            event.level = currentLevel;
+            event.frame = currFrame;
+            event.barrels = barrels.size();
+            event.monkeys = monkeys.size();
+            event.bananas = bananas.size();
+            event.bullets = bullets.size();
+            event.ended = ended;
+            event.commit();
+        }
+        return ended;
+    }
+
+    // Ends the game as lost; if Mario dies twice in one tick, the first cause is kept
+    private void lose(DeathCause cause) {
+        if (!isGameOver) {
+            deathCause = cause;
+        }
+        isGameOver = true;
+    }
+
+    // Reports a collision that changed the game to Flight Recorder
+    private void recordCollision(String kind, double x, double y) {
+        GameEvents.Collision event = new GameEvents.Collision();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.level = currentLevel;
+            event.frame = currFrame;
+            event.x = x;
+            event.y = y;
+            event.commit();
+        }
+    }
+
+    /**
+     * Checks every bullet against the monkeys and Donkey near it, then removes spent bullets.
+     * A bullet hits anything its path crosses this tick, so fast bullets cannot pass through
+     * a target between ticks. Uses the broadphase as rebuilt this tick.
+     * Package-private so the benchmarks can run it on its own.
+     */
+    void resolveBulletHits() {
+        for (int b = 0; b < bullets.size(); b++) {
+            double moveX = bullets.getMoveX(b);
+            double moveY = bullets.getMoveY(b);
+            int candidates = querySwept(bullets.left(b), bullets.top(b), bullets.right(b), bullets.bottom(b),
+                    moveX, moveY);
+            for (int i = 0; i < candidates; i++) {
+                int id = broadphase.getResult(i);
+                int index = id >> KIND_BITS;
+                switch (id & KIND_MASK) {
+                    case KIND_MONKEY -> {
+                        // Check collision with monkeys
+                        Monkey monkey = monkeys.get(index);
+                        if (!monkey.isDead() && hitDuringTick(bullets, b, monkey.getBoundingBox(),
+                                monkey.getMoveX(), monkey.getMoveY())) {
+                            monkey.die();
+                            incrementDestroyedMonkeys();
+                            score += 100;
+                            bullets.markSpent(b);
+                            recordCollision("monkey killed", monkey.getX(), monkey.getY());
+                        }
+                    }
+                    case KIND_DONKEY -> {
+                        // Check collision with Donkey
+                        if (!donkey.isDead() && hitDuringTick(bullets, b, donkey.getBoundingBox(),
+                                0, donkey.getMoveY())) {
+                            donkey.takeDamage();
+                            bullets.markSpent(b);
+                            recordCollision("donkey damaged", donkey.getX(), donkey.getY());
+
+                            if (donkey.isDead()) {
+                                isGameWon = true;// Mark game as won
+                                computeFinalScore(false);
+                            }
+                        }
+                    }
+                    default -> { }
+                }
+            }
+        }
+        // Remove bullets that hit something or expired
+        bullets.removeSpent();
+    }
+
+    /**
+     * Refills the broadphase grid with every enemy and hazard Mario or a bullet can hit.
+     * Each is stored over the whole area it swept this tick, for the swept hit tests.
+     * Ids carry the object kind in their low bits and the index in the rest.
+     */
+    private void rebuildBroadphase() {
+        broadphase.clear();
+
+        for (int i = 0; i < monkeys.size(); i++) {
+            Monkey monkey = monkeys.get(i);
+            if (!monkey.isDead()) {
+                insertSwept(i << KIND_BITS | KIND_MONKEY, monkey.getBoundingBox(),
+                        monkey.getMoveX(), monkey.getMoveY());
+            }
+        }
+        if (!donkey.isDead()) {
+            insertSwept(KIND_DONKEY, donkey.getBoundingBox(), 0, donkey.getMoveY());
+        }
+        for (int i = 0; i < barrels.size(); i++) {
+            if (!barrels.isDestroyed(i)) {
+                insertSwept(i << KIND_BITS | KIND_BARREL, barrels.left(i), barrels.top(i),
+                        barrels.right(i), barrels.bottom(i), barrels.getMoveX(i), barrels.getMoveY(i));
+            }
+        }
+        for (int i = 0; i < bananas.size(); i++) {
+            insertSwept(i << KIND_BITS | KIND_BANANA, bananas.left(i), bananas.top(i),
+                    bananas.right(i), bananas.bottom(i), bananas.getMoveX(i), bananas.getMoveY(i));
+        }
+    }
+
+    private void insertSwept(int id, Aabb bounds, double moveX, double moveY) {
+        insertSwept(id, bounds.left(), bounds.top(), bounds.right(), bounds.bottom(), moveX, moveY);
+    }
+
+    // Inserts the area a box covered while moving to the given edges
+    private void insertSwept(int id, double left, double top, double right, double bottom,
+                             double moveX, double moveY) {
+        broadphase.insert(id, Math.min(left, left - moveX), Math.min(top, top - moveY),
+                Math.max(right, right - moveX), Math.max(bottom, bottom - moveY));
+    }
+
+    private int querySwept(Aabb bounds, double moveX, double moveY) {
+        return querySwept(bounds.left(), bounds.top(), bounds.right(), bounds.bottom(), moveX, moveY);
+    }
+
+    // Finds everything near the area a box covered while moving to the given edges
+    private int querySwept(double left, double top, double right, double bottom, double moveX, double moveY) {
+        return broadphase.query(Math.min(left, left - moveX), Math.min(top, top - moveY),
+                Math.max(right, right - moveX), Math.max(bottom, bottom - moveY));
+    }
+
+    private static boolean hitDuringTick(BodyStore bodies, int i, Aabb other, double otherMoveX, double otherMoveY) {
+        return hitDuringTick(bodies.left(i), bodies.top(i), bodies.right(i), bodies.bottom(i),
+                bodies.getMoveX(i), bodies.getMoveY(i), other, otherMoveX, otherMoveY);
+    }
+
+    private static boolean hitDuringTick(Aabb bounds, double moveX, double moveY,
+                                         Aabb other, double otherMoveX, double otherMoveY) {
+        return hitDuringTick(bounds.left(), bounds.top(), bounds.right(), bounds.bottom(), moveX, moveY,
+                other, otherMoveX, otherMoveY);
+    }
+
+    // Whether two boxes, each moved in a straight line this tick to where they are now, overlapped
+    // at any point on the way: one box's move relative to the other, from where both started
+    private static boolean hitDuringTick(double left, double top, double right, double bottom,
+                                         double moveX, double moveY,
+                                         Aabb other, double otherMoveX, double otherMoveY) {
+        return Aabb.timeOfImpact(left - moveX, top - moveY, right - moveX, bottom - moveY,
+                moveX - otherMoveX, moveY - otherMoveY,
+                other.left() - otherMoveX, other.top() - otherMoveY,
+                other.right() - otherMoveX, other.bottom() - otherMoveY) != Aabb.NO_HIT;
+    }
+
+    /**
+     * Determines whether Mario has completed the level.
+     * He must reach Donkey Kong while holding the hammer OR Donkey is dead.
+     */
+    public boolean isLevelCompleted() {
+        return mario.hasReached(donkey) && (mario.hasHammer() || donkey.isDead());
+    }
+
+    /**
+     * Checks if the time limit has been exceeded.
+     */
+    public boolean checkingGameTime() {
+        return currFrame >= MAX_FRAMES;
+    }
+
+    // Records the start-of-tick position of everything that can move
+    private void savePositions() {
+        mario.savePosition();
+        donkey.savePosition();
+        for (Ladder ladder : ladders) {
+            ladder.savePosition();
+        }
+        for (int i = 0; i < monkeys.size(); i++) {
+            monkeys.get(i).savePosition();
+        }
+        barrels.savePositions();
+        bullets.savePositions();
+        bananas.savePositions();
+    }
+
+    /**
+     * Returns the whole seconds left on the countdown.
+     */
+    public int getSecondsLeft() {
+        return (MAX_FRAMES - currFrame) / TICKS_PER_SECOND;
+    }
+
+    /**
+     * Increments score counters.
+     */
+    public void incrementDestroyedBarrels() {
+        destroyedBarrels++;
+    }
+
+    public void incrementJumpedBarrels() {
+        jumpedBarrels++;
+    }
+
+    public void incrementDestroyedMonkeys() {
+        destroyedMonkeys++;
+    }
+
+    /**
+     * Final score formula: 100 per barrel destroyed,
+     * 30 per barrel jumped, 3 per second left, 100 per monkey killed.
+     * If player dies, finalScore is 0.
+     * Includes score from previous level (startingScore).
+     */
+    public void computeFinalScore(boolean playerDied) {
+        if (playerDied) {
+            finalScore = 0;
+        } else {
+            finalScore = startingScore
+                    + (100 * destroyedBarrels)
+                    + (30 * jumpedBarrels)
+                    + (3 * timeRemaining)
+                    + (100 * destroyedMonkeys);
+        }
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    /**
+     * Sets the score carried over from the previous level, for a world that was built
+     * before that level ended. Must be called before the first tick.
+     *
+     * @param previousScore Score at the end of the previous level.
+     */
+    public void carryOverScore(int previousScore) {
+        if (currFrame != 0) {
+            throw new IllegalStateException("Score can only be carried over before the first tick");
+        }
+        this.score = previousScore;
+        this.startingScore = previousScore;
+    }
+
+    /**
+     * Sets the frame, score and outcome of a world mirrored from the network host,
+     * which is shown but not simulated.
+     */
+    public void applyNetState(int frame, int netScore, int netFinalScore, boolean gameOver, boolean won,
+                              DeathCause cause) {
+        currFrame = frame;
+        score = netScore;
+        finalScore = netFinalScore;
+        isGameOver = gameOver;
+        isGameWon = won;
+        deathCause = cause;
+    }
+
+    /**
+     * Returns the most bytes a snapshot of this world can take, with every pool full.
+     */
+    public int getStateBytes() {
+        int bytes = HEADER_BYTES + COUNTERS_BYTES + Mario.STATE_BYTES + Donkey.STATE_BYTES
+                + ladders.length * Ladder.STATE_BYTES
+                + hammers.size() * Hammer.STATE_BYTES
+                + blasters.size() * Blaster.STATE_BYTES
+                + barrels.getStateBytes() + bullets.getStateBytes() + bananas.getStateBytes();
+        for (Monkey monkey : monkeys) {
+            bytes += monkey.getStateBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Saves the whole changing state of the level into a snapshot, without allocating.
+     * The broadphase is not saved; it is rebuilt at the start of every tick.
+     *
+     * @param snapshot A snapshot created for this world.
+     */
+    public void saveState(GameSnapshot snapshot) {
+        ByteBuffer out = snapshot.beginSave();
+        // 1) Header, so a snapshot cannot be restored into a different level
+        out.putInt(currentLevel).putInt(ladders.length).putInt(hammers.size()).putInt(blasters.size())
+                .putInt(monkeys.size()).putInt(barrels.getCapacity()).putInt(bullets.getCapacity())
+                .putInt(bananas.getCapacity());
+
+        // 2) Frame, score counters and outcome
+        out.putInt(currFrame).putInt(score).putInt(startingScore).putInt(destroyedBarrels)
+                .putInt(jumpedBarrels).putInt(destroyedMonkeys).putInt(finalScore).putInt(timeRemaining);
+        out.put((byte) deathCause.ordinal());
+        GameSnapshot.putBoolean(out, isGameOver);
+        GameSnapshot.putBoolean(out, isGameWon);
+
+        // 3) Every object, in a fixed order; indexed loops so no iterators are allocated
+        mario.saveState(out);
+        donkey.saveState(out);
+        for (Ladder ladder : ladders) {
+            ladder.saveState(out);
+        }
+        barrels.saveState(out);
+        for (int i = 0; i < hammers.size(); i++) {
+            hammers.get(i).saveState(out);
+        }
+        for (int i = 0; i < blasters.size(); i++) {
+            blasters.get(i).saveState(out);
+        }
+        for (int i = 0; i < monkeys.size(); i++) {
+            monkeys.get(i).saveState(out);
+        }
+        bananas.saveState(out);
+        bullets.saveState(out);
+        snapshot.endSave(currFrame);
+    }
+
+    /**
+     * Puts the level back exactly as it was when a snapshot was saved, so ticking on
+     * with the same input gives the same result as it did then.
+     *
+     * @param snapshot A snapshot saved from this world, or another built from the same level and pool sizes.
+     * @throws IllegalArgumentException if the snapshot was saved from a differently shaped world.
+     */
+    public void restoreState(GameSnapshot snapshot) {
+        ByteBuffer in = snapshot.beginRestore();
+        // 1) Header
+        expect(in, "level", currentLevel);
+        expect(in, "ladders", ladders.length);
+        expect(in, "hammers", hammers.size());
+        expect(in, "blasters", blasters.size());
+        expect(in, "monkeys", monkeys.size());
+        expect(in, "barrel pool", barrels.getCapacity());
+        expect(in, "bullet pool", bullets.getCapacity());
+        expect(in, "banana pool", bananas.getCapacity());
+
+        // 2) Frame, score counters and outcome
+        currFrame = in.getInt();
+        score = in.getInt();
+        startingScore = in.getInt();
+        destroyedBarrels = in.getInt();
+        jumpedBarrels = in.getInt();
+        destroyedMonkeys = in.getInt();
+        finalScore = in.getInt();
+        timeRemaining = in.getInt();
+        deathCause = DEATH_CAUSES[in.get()];
+        isGameOver = GameSnapshot.getBoolean(in);
+        isGameWon = GameSnapshot.getBoolean(in);
+
+        // 3) Every object, in the order saved
+        mario.restoreState(in);
+        donkey.restoreState(in);
+        for (Ladder ladder : ladders) {
+            ladder.restoreState(in);
+        }
+        barrels.restoreState(in);
+        for (int i = 0; i < hammers.size(); i++) {
+            hammers.get(i).restoreState(in);
+        }
+        for (int i = 0; i < blasters.size(); i++) {
+            blasters.get(i).restoreState(in);
+        }
+        for (int i = 0; i < monkeys.size(); i++) {
+            monkeys.get(i).restoreState(in);
+        }
+        bananas.restoreState(in);
+        bullets.restoreState(in);
+    }
+
+    private static void expect(ByteBuffer in, String field, int expected) {
+        int saved = in.getInt();
+        if (saved != expected) {
+            throw new IllegalArgumentException("Snapshot is of a different world: " + field + " " + saved
+                    + ", expected " + expected);
+        }
+    }
+
+    /**
+     * Returns why the level was lost, or {@link DeathCause#NONE} if it was not.
+     */
+    public DeathCause getDeathCause() {
+        return deathCause;
+    }
+
+    public boolean hasWon() {
+        return isGameWon;
+    }
+
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    public int getCurrFrame() {
+        return currFrame;
+    }
+
+    public double getWidth() {
+        return WIDTH;
+    }
+
+    public double getHeight() {
+        return HEIGHT;
+    }
+
+    public Mario getMario() {
+        return mario;
+    }
+
+    public Donkey getDonkey() {
+        return donkey;
+    }
+
+    public Platform[] getPlatforms() {
+        return platforms;
+    }
+
+    public Ladder[] getLadders() {
+        return ladders;
+    }
+
+    public Barrels getBarrels() {
+        return barrels;
+    }
+
+    public List<Hammer> getHammers() {
+        return hammers;
+    }
+
+    public List<Blaster> getBlasters() {
+        return blasters;
+    }
+
+    public List<Monkey> getMonkeys() {
+        return monkeys;
+    }
+
+    public Bullets getBullets() {
+        return bullets;
+    }
+
+    public Bananas getBananas() {
+        return bananas;
+    }
+}
@@ -1,37 +1,33 @@
-import bagel.Image;
-import bagel.util.Rectangle;
+import java.nio.ByteBuffer;
 
 /**
  * Represents a Hammer collectible in the game.
  * The hammer can be collected by the player, at which point it disappears from the screen.
  */
 public class Hammer {
-    private final Image HAMMER_IMAGE;
+    private static final String HAMMER_IMAGE = "res/hammer.png";
     private final double WIDTH, HEIGHT;
     private final double x;
     private final double y;
     private boolean isCollected = false;
+    private final Aabb bounds = new Aabb();
+
+    /** Bytes written by {@link #saveState(ByteBuffer)}. */
+    public static final int STATE_BYTES = 1;
 
 
 
     /**
-     * Constructs a Hammer using its position from the app.properties file.
-     * Position is read using the key format "hammer.levelZ.A", where:
-     * - Z is the level number
-     * - A is the hammer index (starting from 1)
-     * Example: hammer.level2.2=600,340
-     * @param level The level number (e.g., 1 or 2).
-     * @param index The hammer index in the level.
+     * Constructs a Hammer at the given position.
+     * @param x The x-coordinate of the hammer's centre.
+     * @param y The y-coordinate of the hammer's centre.
      */
-    public Hammer(int level, int index) {
-        String key = "hammer.level" + level + "." + index;
-        String value = IOUtils.getProperty(key);
-        String[] coords = value.split(",");
-        this.x = Double.parseDouble(coords[0].trim());
-        this.y = Double.parseDouble(coords[1].trim());
-        this.HAMMER_IMAGE = new Image("res/hammer.png");
-        this.WIDTH = HAMMER_IMAGE.getWidth();
-        this.HEIGHT = HAMMER_IMAGE.getHeight();
+    public Hammer(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.WIDTH = Sprites.width(HAMMER_IMAGE);
+        this.HEIGHT = Sprites.height(HAMMER_IMAGE);
+        this.bounds.setCentered(x, y, WIDTH, HEIGHT); // Center-based positioning
     }
 
 
@@ -40,28 +36,33 @@ public class Hammer {
      * Returns the bounding box of the hammer for collision detection.
      * If the hammer has been collected, it returns an off-screen bounding box.
      *
-     * @return A {@link Rectangle} representing the hammer's bounding box.
+     * @return An {@link Aabb} representing the hammer's bounding box.
      */
-    public Rectangle getBoundingBox() {
-        if (isCollected) {
-            return new Rectangle(-1000, -1000, 0, 0); // Move off-screen if collected
-        }
-        return new Rectangle(
-                x - (WIDTH / 2),  // Center-based positioning
-                y - (HEIGHT / 2),
-                WIDTH,
-                HEIGHT
-        );
+    public Aabb getBoundingBox() {
+        return bounds;
     }
 
     /**
-     * Draws the hammer on the screen if it has not been collected.
+     * Gets the path of the hammer's image.
+     *
+     * @return The image path used to draw the hammer.
      */
-    public void draw() {
-        if (!isCollected) {
-            HAMMER_IMAGE.draw(x, y); // Bagel centers images automatically
-//            drawBoundingBox(); // Uncomment for debugging
-        }
+    public String getImagePath() {
+        return HAMMER_IMAGE;
+    }
+
+    /**
+     * Gets the x-coordinate of the hammer (sprite centre).
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the y-coordinate of the hammer (sprite centre).
+     */
+    public double getY() {
+        return y;
     }
 
     /**
@@ -69,6 +70,7 @@ public class Hammer {
      */
     public void collect() {
         isCollected = true;
+        bounds.set(-1000, -1000, 0, 0); // Move off-screen if collected
     }
 
     /**
@@ -80,4 +82,24 @@ public class Hammer {
         return isCollected;
     }
 
+    /**
+     * Writes whether the hammer has been collected into a snapshot.
+     */
+    public void saveState(ByteBuffer out) {
+        GameSnapshot.putBoolean(out, isCollected);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(ByteBuffer)}, putting the hammer back
+     * on screen if it had not been collected yet.
+     */
+    public void restoreState(ByteBuffer in) {
+        if (GameSnapshot.getBoolean(in)) {
+            collect();
+        } else {
+            isCollected = false;
+            bounds.setCentered(x, y, WIDTH, HEIGHT);
+        }
+    }
+
 }
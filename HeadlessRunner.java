@@ -0,0 +1,51 @@
+
+/**
+ * Runs a level without a window for soak and balance testing.
+ * The level is ticked with no player input until it ends or the tick limit is reached,
+ * and the achieved tick rate is printed.
+ */
+public class HeadlessRunner {
+
+    /**
+     * Entry point for the headless runner.
+     *
+     * @param args Optional level number or compiled ".lvl" file (default 1)
+     *             and tick limit (default 10000).
+     */
+    public static void main(String[] args) {
+        String levelArg = args.length > 0 ? args[0] : "1";
+        int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+        long loadStart = System.nanoTime();
+        LevelConfig config = LevelFile.load(levelArg);
+        GameWorld world = new GameWorld(config, 0);
+        int level = config.getLevel();
+        System.out.println("Level " + level + " loaded in "
+                + String.format("%.1f", (System.nanoTime() - loadStart) / 1e6) + "ms");
+
+        long start = System.nanoTime();
+        int ticks = 0;
+        boolean ended = false;
+        while (!ended && ticks < maxTicks) {
+            ended = world.tick(Controls.NONE);
+            ticks++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Level " + level + ": " + ticks + " ticks in "
+                + String.format("%.3f", seconds) + "s ("
+                + String.format("%.0f", ticks / seconds) + " ticks/s), won=" + world.hasWon()
+                + ", score=" + world.getScore());
+        printPool("Bullets", world.getBullets());
+        printPool("Bananas", world.getBananas());
+        if (PhaseTimers.isEnabled()) {
+            System.out.print(PhaseTimers.report("Phase timings (microseconds):"));
+        }
+    }
+
+    private static void printPool(String name, BodyStore pool) {
+        System.out.println(name + " pool: " + pool.size() + "/" + pool.getCapacity()
+                + " in use, high-water " + pool.getHighWaterMark()
+                + ", dropped " + pool.getDroppedCount());
+    }
+}
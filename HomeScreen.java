@@ -7,13 +7,20 @@ import java.util.Properties;
  */
 public class HomeScreen {
 
+    private final String BACKGROUND_PATH;  // Path of the background image
     private final Image BACKGROUND_IMAGE;  // Background image for the home screen
     private final String TITLE;            // Title text displayed at the top
     private final String PROMPT;           // Instruction prompt (e.g., "PRESS ENTER TO START LEVEL 1, PRESS 2 TO START LEVEL 2")
 
+    private final String FONT_PATH;        // Font file shared by the title and prompt
+    private final int TITLE_FONT_SIZE;
+    private final int PROMPT_FONT_SIZE;
     private final Font TITLE_FONT;         // Font used for the title
     private final Font PROMPT_FONT;        // Font used for the prompt
 
+    private final TextLabel TITLE_LABEL;   // Title text, measured once
+    private final TextLabel PROMPT_LABEL;  // Prompt text, measured once
+
     private final int TITLE_Y;             // Vertical position of the title
     private final int PROMPT_Y;            // Vertical position of the prompt
 
@@ -25,25 +32,26 @@ public class HomeScreen {
      */
     public HomeScreen(Properties gameProps, Properties msgProps) {
         // Load the background image from properties
-        BACKGROUND_IMAGE = new Image(gameProps.getProperty("backgroundImage"));
+        BACKGROUND_PATH = gameProps.getProperty("backgroundImage");
+        BACKGROUND_IMAGE = Assets.acquireImage(BACKGROUND_PATH);
 
         // Load title and prompt text from properties
         TITLE = msgProps.getProperty("home.title");
         PROMPT = msgProps.getProperty("home.prompt");
 
         // Load title font and its position
-        TITLE_FONT = new Font(
-                gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("home.title.fontSize"))
-        );
+        FONT_PATH = gameProps.getProperty("font");
+        TITLE_FONT_SIZE = Integer.parseInt(gameProps.getProperty("home.title.fontSize"));
+        TITLE_FONT = Assets.acquireFont(FONT_PATH, TITLE_FONT_SIZE);
         TITLE_Y = Integer.parseInt(gameProps.getProperty("home.title.y"));
 
         // Load prompt font and its position
-        PROMPT_FONT = new Font(
-                gameProps.getProperty("font"),
-                Integer.parseInt(gameProps.getProperty("home.prompt.fontSize"))
-        );
+        PROMPT_FONT_SIZE = Integer.parseInt(gameProps.getProperty("home.prompt.fontSize"));
+        PROMPT_FONT = Assets.acquireFont(FONT_PATH, PROMPT_FONT_SIZE);
         PROMPT_Y = Integer.parseInt(gameProps.getProperty("home.prompt.y"));
+
+        TITLE_LABEL = new TextLabel(TITLE_FONT, TITLE);
+        PROMPT_LABEL = new TextLabel(PROMPT_FONT, PROMPT);
     }
 
     /**
@@ -58,12 +66,10 @@ public class HomeScreen {
         BACKGROUND_IMAGE.drawFromTopLeft(0, 0);
 
         // 2) Draw title centered
-        double titleX = Window.getWidth() / 2.0 - TITLE_FONT.getWidth(TITLE) / 2.0;
-        TITLE_FONT.drawString(TITLE, titleX, TITLE_Y);
+        TITLE_LABEL.drawCentred(Window.getWidth() / 2.0, TITLE_Y);
 
         // 3) Draw prompt centered
-        double promptX = Window.getWidth() / 2.0 - PROMPT_FONT.getWidth(PROMPT) / 2.0;
-        PROMPT_FONT.drawString(PROMPT, promptX, PROMPT_Y);
+        PROMPT_LABEL.drawCentred(Window.getWidth() / 2.0, PROMPT_Y);
 
         // 4) Detect key presses
         if (input.wasPressed(Keys.ENTER)) {
@@ -75,4 +81,13 @@ public class HomeScreen {
         // 5) No key pressed → stay on home screen
         return null;
     }
+
+    /**
+     * Releases the images and fonts this screen acquired. Call it when leaving the screen.
+     */
+    public void dispose() {
+        Assets.releaseImage(BACKGROUND_PATH);
+        Assets.releaseFont(FONT_PATH, TITLE_FONT_SIZE);
+        Assets.releaseFont(FONT_PATH, PROMPT_FONT_SIZE);
+    }
 }
@@ -0,0 +1,226 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The input for every tick of one play of a level, recorded so the level can be replayed exactly.
+ * The simulation is deterministic, so a level number, a starting score and the {@link Controls}
+ * flags for each tick are all it takes to reproduce a play, with or without a window.
+ * Held keys rarely change from one tick to the next, so the ticks are stored as runs of equal input.
+ *
+ * Layout (version 1, big-endian):
+ * <pre>
+ * int magic "SDKR", int version, int level, int startingScore, int ticks, int endScore
+ * int runs, then per run: byte controls, int length
+ * </pre>
+ */
+public final class InputLog {
+    private static final int MAGIC = 0x53444B52; // "SDKR"
+    private static final int VERSION = 1;
+
+    private final int level;
+    private final int startingScore;
+    private int endScore;
+    private int ticks = 0;
+
+    // Run-length encoded input: runControls[i] repeated runLengths[i] times
+    private int[] runControls = new int[64];
+    private int[] runLengths = new int[64];
+    private int runs = 0;
+
+    /**
+     * Starts an empty recording.
+     *
+     * @param level         The level being played.
+     * @param startingScore The score carried into the level.
+     */
+    public InputLog(int level, int startingScore) {
+        this.level = level;
+        this.startingScore = startingScore;
+        this.endScore = startingScore;
+    }
+
+    /**
+     * Appends the input for one tick.
+     *
+     * @param controls The {@link Controls} flags passed to {@link GameWorld#tick(int)}.
+     */
+    public void record(int controls) {
+        if (runs > 0 && runControls[runs - 1] == controls) {
+            runLengths[runs - 1]++;
+        } else {
+            if (runs == runControls.length) {
+                runControls = Arrays.copyOf(runControls, runs * 2);
+                runLengths = Arrays.copyOf(runLengths, runs * 2);
+            }
+            runControls[runs] = controls;
+            runLengths[runs] = 1;
+            runs++;
+        }
+        ticks++;
+    }
+
+    /**
+     * Drops everything recorded after the given tick, e.g. when play is rolled back to a snapshot.
+     *
+     * @param tickCount Number of ticks to keep; at most {@link #getTickCount()}.
+     */
+    public void truncate(int tickCount) {
+        if (tickCount < 0 || tickCount > ticks) {
+            throw new IllegalArgumentException("Cannot keep " + tickCount + " of " + ticks + " ticks");
+        }
+        int excess = ticks - tickCount;
+        while (excess > 0) {
+            int dropped = Math.min(excess, runLengths[runs - 1]);
+            runLengths[runs - 1] -= dropped;
+            if (runLengths[runs - 1] == 0) {
+                runs--;
+            }
+            excess -= dropped;
+        }
+        ticks = tickCount;
+    }
+
+    /**
+     * Sets the score the recorded play ended with, so a replay can be checked against it.
+     */
+    public void setEndScore(int endScore) {
+        this.endScore = endScore;
+    }
+
+    /**
+     * Builds a fresh world for the recorded level, ready to be replayed from its first tick.
+     *
+     * @param config The recorded level's configuration.
+     * @return A world with the recorded starting score.
+     * @throws IllegalArgumentException if the configuration is for a different level.
+     */
+    public GameWorld createWorld(LevelConfig config) {
+        if (config.getLevel() != level) {
+            throw new IllegalArgumentException("Recording is of level " + level
+                    + " but level " + config.getLevel() + " was given");
+        }
+        return new GameWorld(config, startingScore);
+    }
+
+    /**
+     * Ticks a world with the recorded input, stopping early if the level ends.
+     *
+     * @param world A world built by {@link #createWorld(LevelConfig)}.
+     * @return The number of ticks run.
+     */
+    public int replay(GameWorld world) {
+        int ticksRun = 0;
+        for (int run = 0; run < runs; run++) {
+            int controls = runControls[run];
+            for (int i = 0; i < runLengths[run]; i++) {
+                ticksRun++;
+                if (world.tick(controls)) {
+                    return ticksRun;
+                }
+            }
+        }
+        return ticksRun;
+    }
+
+    /**
+     * Writes the recording, replacing any existing file.
+     *
+     * @param file Where to write it.
+     */
+    public void write(Path file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            // 1) Header
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(level);
+            out.writeInt(startingScore);
+            out.writeInt(ticks);
+            out.writeInt(endScore);
+
+            // 2) Input runs
+            out.writeInt(runs);
+            for (int i = 0; i < runs; i++) {
+                out.writeByte(runControls[i]);
+                out.writeInt(runLengths[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write input log " + file, e);
+        }
+    }
+
+    /**
+     * Reads a recording written by {@link #write(Path)}.
+     *
+     * @param file The recording.
+     * @return The recording.
+     * @throws IllegalArgumentException if the file is not an input log of a supported version,
+     *                                  or is truncated or corrupt.
+     */
+    public static InputLog read(Path file) {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read input log " + file, e);
+        }
+        try {
+            // 1) Header
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not an input log: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported input log version " + version + ": " + file);
+            }
+            InputLog log = new InputLog(buffer.getInt(), buffer.getInt());
+            int ticks = buffer.getInt();
+            log.setEndScore(buffer.getInt());
+
+            // 2) Input runs
+            int runs = buffer.getInt();
+            if (runs < 0 || runs > buffer.remaining()) {
+                throw new IllegalArgumentException("Corrupt input log: bad run count " + runs);
+            }
+            for (int i = 0; i < runs; i++) {
+                int controls = buffer.get();
+                int length = buffer.getInt();
+                if (length <= 0) {
+                    throw new IllegalArgumentException("Corrupt input log: bad run length " + length);
+                }
+                for (int t = 0; t < length; t++) {
+                    log.record(controls);
+                }
+            }
+            if (log.ticks != ticks) {
+                throw new IllegalArgumentException("Corrupt input log: header says " + ticks
+                        + " ticks but runs hold " + log.ticks);
+            }
+            return log;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated input log: " + file, e);
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getStartingScore() {
+        return startingScore;
+    }
+
+    public int getEndScore() {
+        return endScore;
+    }
+
+    public int getTickCount() {
+        return ticks;
+    }
+}
@@ -1,5 +1,4 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 /**
  * Represents an intelligent monkey that can walk and throw bananas at regular intervals.
@@ -10,17 +9,21 @@ public class IntelligentMonkey extends Monkey {
     private static final double INTELLIGENT_MONKEY_SPEED = 0.5;
     private static final int FIRE_INTERVAL_FRAMES = 300;
 
-    private final List<Banana> bananas = new ArrayList<>();
+    private final Bananas bananas;
+    private final int index;
     private int frameCounter = 0;
 
     /**
-     * Constructs an IntelligentMonkey using its configuration string.
-     * Loads sprite images and movement route from app.properties.
+     * Constructs an IntelligentMonkey from its level configuration.
      *
-     * @param config Configuration string (format: x,y;direction;distance1,distance2,...)
+     * @param config  Starting position, direction and route for this monkey.
+     * @param bananas The level's banana store this monkey throws into.
+     * @param index   This monkey's index in the level's monkey list.
      */
-    public IntelligentMonkey(String config) {
+    public IntelligentMonkey(LevelConfig.MonkeyConfig config, Bananas bananas, int index) {
         super(config, "res/intelli_monkey_left.png", "res/intelli_monkey_right.png");
+        this.bananas = bananas;
+        this.index = index;
     }
 
 
@@ -33,45 +36,57 @@ public class IntelligentMonkey extends Monkey {
     }
 
     /**
-     * Updates the monkey’s movement, shooting logic, and banana behavior.
-     * Bananas are fired every 5 seconds if the monkey is on a platform.
+     * Updates the monkey’s movement and shooting logic.
+     * Bananas are fired every 5 seconds if the monkey is on a platform;
+     * the level's {@link Bananas} store moves them.
      */
     @Override
-    public void update(Platform[] platforms) {
+    public void update(PlatformIndex platforms) {
         super.update(platforms);
 
-        if (!dead && landed) {
+        if (isThrowing()) {
             frameCounter++;
             // Shoot banana every FIRE_INTERVAL_FRAMES
             if (frameCounter >= FIRE_INTERVAL_FRAMES) {
                 frameCounter = 0;
                 shootBanana();
             }
+        }
+    }
 
-            // Update and draw all bananas
-            for (Banana b : bananas) {
-                b.update();
-                b.draw();
-            }
+    /**
+     * Returns whether this monkey is alive and on a platform, i.e. able to throw.
+     */
+    public boolean isThrowing() {
+        return !dead && landed;
+    }
 
-            // Remove expired bananas
-            bananas.removeIf(Banana::hasExpired);
-        }
+    @Override
+    public int getStateBytes() {
+        return super.getStateBytes() + Integer.BYTES;
     }
 
     /**
-     * Creates and launches a new banana in the current facing direction.
+     * Also saves the ticks since the last banana.
      */
-    private void shootBanana() {
-        double bananaX = movingRight ? (x + width - 5) : (x - 5);
-        double bananaY = y + height * 0.25;  // 发射点靠近肩膀
-        bananas.add(new Banana(bananaX, bananaY, movingRight));
+    @Override
+    public void saveState(ByteBuffer out) {
+        super.saveState(out);
+        out.putInt(frameCounter);
+    }
+
+    @Override
+    public void restoreState(ByteBuffer in) {
+        super.restoreState(in);
+        frameCounter = in.getInt();
     }
 
     /**
-     * Returns the list of bananas currently active for this monkey.
+     * Launches a new banana in the current facing direction.
      */
-    public List<Banana> getBananas() {
-        return bananas;
+    private void shootBanana() {
+        double bananaX = movingRight ? (x + width - 5) : (x - 5);
+        double bananaY = y + height * 0.25;  // 发射点靠近肩膀
+        bananas.spawn(bananaX, bananaY, movingRight, index);
     }
 }
@@ -1,55 +1,54 @@
-import bagel.*;
-import bagel.util.Rectangle;
+import java.nio.ByteBuffer;
 
 /**
  * Represents a ladder in the game.
  * The ladder falls under gravity until it lands on a platform.
  */
 public class Ladder {
-    private final Image LADDER_IMAGE;
+    /** Bytes written by {@link #saveState(ByteBuffer)}. */
+    public static final int STATE_BYTES = 3 * Double.BYTES + Integer.BYTES + 1;
+
+    private static final String LADDER_IMAGE = "res/ladder.png";
     private final double x;
     private double y;
+    private double prevY; // y at the start of the last tick
     public static double width;
     public static double height;
 
     private double velocityY = 0; // Current vertical velocity due to gravity
+    private int restTicks = 0; // Ticks in a row spent landed without moving
+    private boolean asleep = false; // Skipped by the physics pass until woken
+    private final Aabb bounds = new Aabb();
 
     /**
-     * Constructs a Ladder by reading its position from app.properties.
-     * The key must be in the format "ladder.levelZ.A", where:
-     * - Z is the level number
-     * - A is the ladder index number
+     * Constructs a Ladder at its starting position; it then falls until it lands.
      *
-     * @param level The current level number (e.g. 1 or 2)
-     * @param index The index of this ladder in the level (starting from 1)
-     */
-    public Ladder(int level, int index) {
-        this.LADDER_IMAGE = new Image("res/ladder.png");
-        String key = "ladder.level" + level + "." + index;
-        String value = IOUtils.getProperty(key);
-        String[] coords = value.split(",");
-        this.x = Double.parseDouble(coords[0].trim());
-        this.y = Double.parseDouble(coords[1].trim());
-
-        width = LADDER_IMAGE.getWidth();
-        height = LADDER_IMAGE.getHeight();
-    }
-
-    /**
-     * Draws the ladder on the screen.
+     * @param x The x-coordinate of the ladder's centre
+     * @param y The starting y-coordinate of the ladder's centre
      */
-    public void draw() {
-        LADDER_IMAGE.draw(x, y);
-//        drawBoundingBox(); // Uncomment for debugging
+    public Ladder(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.prevY = y;
+
+        width = Sprites.width(LADDER_IMAGE);
+        height = Sprites.height(LADDER_IMAGE);
+        updateBounds();
     }
 
     /**
      * Updates the ladder's position by applying gravity and checking for platform collisions.
      * If a collision is detected, the ladder stops falling and rests on the platform.
      *
-     * @param platforms An array of platforms in the game.
+     * @param platforms The level's platform index.
      */
-    public void update(Platform[] platforms) {
+    public void update(PlatformIndex platforms) {
+        // A landed ladder would only fall and snap back to the same place
+        if (asleep) {
+            return;
+        }
+        double startY = y;
+
         // 1) Apply gravity
         velocityY += Physics.LADDER_GRAVITY;
 
@@ -60,36 +59,63 @@ public class Ladder {
 
         // 3) Move the ladder downward
         y += velocityY;
+        updateBounds();
 
         // 4) Check for collision with platforms
-        for (Platform platform : platforms) {
-            if (getBoundingBox().intersects(platform.getBoundingBox())) {
-                // Position the ladder on top of the platform
-                y = platform.getY()
-                        - (platform.getHeight() / 2)  // Platform top edge
-                        - (this.getHeight() / 2);     // Ladder height offset
-
-                velocityY = 0; // Stop falling
-                break; // Stop checking further once the ladder lands
-            }
+        Platform platform = platforms.firstOverlapping(getBoundingBox());
+        if (platform != null) {
+            // Position the ladder on top of the platform
+            y = platform.getY()
+                    - (platform.getHeight() / 2)  // Platform top edge
+                    - (this.getHeight() / 2);     // Ladder height offset
+
+            velocityY = 0; // Stop falling
+            updateBounds();
         }
 
-        // 5) Draw the ladder after updating position
-        draw();
+        // 5) Fall asleep after resting in place for long enough
+        if (velocityY == 0 && y == startY) {
+            asleep = ++restTicks >= Physics.SLEEP_TICKS;
+        } else {
+            restTicks = 0;
+        }
+    }
+
+    /**
+     * Puts the ladder back in the physics pass, e.g. after the platform under it changes.
+     */
+    public void wake() {
+        asleep = false;
+        restTicks = 0;
+    }
+
+    /**
+     * Checks whether the ladder has landed and is being skipped by the physics pass.
+     */
+    public boolean isAsleep() {
+        return asleep;
     }
 
     /**
      * Returns the bounding box of the ladder for collision detection.
      *
-     * @return A {@link Rectangle} representing the ladder's bounding box.
+     * @return An {@link Aabb} representing the ladder's bounding box.
+     */
+    public Aabb getBoundingBox() {
+        return bounds;
+    }
+
+    private void updateBounds() {
+        bounds.setCentered(x, y, width, height);
+    }
+
+    /**
+     * Gets the path of the ladder's image.
+     *
+     * @return The image path used to draw the ladder.
      */
-    public Rectangle getBoundingBox() {
-        return new Rectangle(
-                x - (LADDER_IMAGE.getWidth() / 2),
-                y - (LADDER_IMAGE.getHeight() / 2),
-                LADDER_IMAGE.getWidth(),
-                LADDER_IMAGE.getHeight()
-        );
+    public String getImagePath() {
+        return LADDER_IMAGE;
     }
 
 
@@ -111,6 +137,20 @@ public class Ladder {
         return y;
     }
 
+    /**
+     * Remembers the current position as the start of the next tick, for render interpolation.
+     */
+    public void savePosition() {
+        prevY = y;
+    }
+
+    /**
+     * Gets the y-coordinate to draw at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderY(double alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
     /**
      * Gets the width of the ladder.
      *
@@ -128,4 +168,35 @@ public class Ladder {
     public double getHeight() {
         return height;
     }
+
+    /**
+     * Shows the ladder as the network host last sent it, on a client that does not simulate.
+     */
+    public void applyNetState(double newY, boolean newAsleep) {
+        prevY = y;
+        y = newY;
+        asleep = newAsleep;
+        updateBounds();
+    }
+
+    /**
+     * Writes the ladder's changing state into a snapshot.
+     */
+    public void saveState(ByteBuffer out) {
+        out.putDouble(y).putDouble(prevY).putDouble(velocityY);
+        out.putInt(restTicks);
+        GameSnapshot.putBoolean(out, asleep);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(ByteBuffer)}.
+     */
+    public void restoreState(ByteBuffer in) {
+        y = in.getDouble();
+        prevY = in.getDouble();
+        velocityY = in.getDouble();
+        restTicks = in.getInt();
+        asleep = GameSnapshot.getBoolean(in);
+        updateBounds();
+    }
 }
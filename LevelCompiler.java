@@ -0,0 +1,31 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Compiles the levels in a properties file into the binary format read by {@link LevelFile}.
+ * Each level N is written to "levelN.lvl" in the output folder.
+ */
+public class LevelCompiler {
+
+    /**
+     * Entry point for the level compiler.
+     *
+     * @param args Properties file (default res/app.properties) and output folder (default res).
+     */
+    public static void main(String[] args) throws Exception {
+        String propsFile = args.length > 0 ? args[0] : "res/app.properties";
+        Path outDir = Path.of(args.length > 1 ? args[1] : "res");
+
+        Properties props = IOUtils.readPropertiesFile(propsFile);
+        List<LevelConfig> levels = LevelConfig.loadAll(props);
+        Files.createDirectories(outDir);
+        for (LevelConfig level : levels) {
+            Path file = outDir.resolve("level" + level.getLevel() + ".lvl");
+            LevelFile.write(level, file);
+            System.out.println("Compiled level " + level.getLevel() + " to " + file
+                    + " (" + Files.size(file) + " bytes)");
+        }
+    }
+}
@@ -0,0 +1,297 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * An immutable, fully parsed description of one level.
+ * Every position, count and monkey route is read from the game properties and validated once,
+ * so building a level involves no string parsing, and a malformed entry is reported
+ * with its key when the configuration is loaded instead of when its entity is created.
+ */
+public final class LevelConfig {
+
+    /**
+     * A position in window coordinates.
+     */
+    public record Position(double x, double y) {
+    }
+
+    /**
+     * A monkey's starting position, initial direction and walking route.
+     * Each route entry is the distance walked before turning around.
+     */
+    public record MonkeyConfig(Position position, boolean movingRight, List<Integer> route) {
+        public MonkeyConfig {
+            route = List.copyOf(route);
+        }
+    }
+
+    private final int level;
+    private final int width;
+    private final int height;
+    private final int maxFrames;
+    private final Position mario;
+    private final Position donkey;
+    private final List<Position> platforms;
+    private final List<Position> ladders;
+    private final List<Position> barrels;
+    private final List<Position> hammers;
+    private final List<Position> blasters;
+    private final List<MonkeyConfig> normalMonkeys;
+    private final List<MonkeyConfig> intelligentMonkeys;
+
+    /**
+     * Creates a level description, validating every value.
+     *
+     * @throws IllegalArgumentException if a size is not positive, a position lies outside
+     *                                  the window, or a monkey route is empty or not positive.
+     */
+    public LevelConfig(int level, int width, int height, int maxFrames,
+                       Position mario, Position donkey,
+                       List<Position> platforms, List<Position> ladders, List<Position> barrels,
+                       List<Position> hammers, List<Position> blasters,
+                       List<MonkeyConfig> normalMonkeys, List<MonkeyConfig> intelligentMonkeys) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + width + "x" + height);
+        }
+        if (maxFrames <= 0) {
+            throw new IllegalArgumentException("gamePlay.maxFrames must be positive: " + maxFrames);
+        }
+        this.level = level;
+        this.width = width;
+        this.height = height;
+        this.maxFrames = maxFrames;
+        this.mario = checkInside(mario, "mario.level" + level);
+        this.donkey = checkInside(donkey, "donkey.level" + level);
+        this.platforms = checkInside(platforms, "platforms.level" + level);
+        this.ladders = checkInside(ladders, "ladder.level" + level);
+        this.barrels = checkInside(barrels, "barrel.level" + level);
+        this.hammers = checkInside(hammers, "hammer.level" + level);
+        this.blasters = checkInside(blasters, "blaster.level" + level);
+        this.normalMonkeys = checkMonkeys(normalMonkeys, "normalMonkey.level" + level);
+        this.intelligentMonkeys = checkMonkeys(intelligentMonkeys, "intelligentMonkey.level" + level);
+    }
+
+    /**
+     * Parses every level in the properties, starting at level 1 and stopping at the first
+     * level without a Mario position. Call it at startup so bad configuration fails early.
+     *
+     * @param props The game properties.
+     * @return The levels in order; level N is at index N - 1.
+     * @throws IllegalArgumentException if any entry is missing or malformed.
+     */
+    public static List<LevelConfig> loadAll(Properties props) {
+        List<LevelConfig> levels = new ArrayList<>();
+        for (int level = 1; props.getProperty("mario.level" + level) != null; level++) {
+            levels.add(load(props, level));
+        }
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("No levels found: missing property for key: mario.level1");
+        }
+        return List.copyOf(levels);
+    }
+
+    /**
+     * Parses one level from the properties.
+     *
+     * @param props The game properties.
+     * @param level The level number (e.g. 1 or 2).
+     * @return The parsed level.
+     * @throws IllegalArgumentException if any entry is missing or malformed.
+     */
+    public static LevelConfig load(Properties props, int level) {
+        List<Position> platforms = new ArrayList<>();
+        String platformData = props.getProperty("platforms.level" + level);
+        if (platformData != null && !platformData.isBlank()) {
+            for (String entry : platformData.split(";")) {
+                platforms.add(parsePosition(entry, "platforms.level" + level));
+            }
+        }
+
+        List<MonkeyConfig> normalMonkeys = new ArrayList<>();
+        int normalCount = parseCount(props, "normalMonkey.level" + level + ".count", false);
+        for (int i = 1; i <= normalCount; i++) {
+            normalMonkeys.add(parseMonkey(props, "normalMonkey.level" + level + "." + i));
+        }
+        List<MonkeyConfig> intelligentMonkeys = new ArrayList<>();
+        int intelligentCount = parseCount(props, "intelligentMonkey.level" + level + ".count", false);
+        for (int i = 1; i <= intelligentCount; i++) {
+            intelligentMonkeys.add(parseMonkey(props, "intelligentMonkey.level" + level + "." + i));
+        }
+
+        return new LevelConfig(level,
+                parseInt(props, "window.width"),
+                parseInt(props, "window.height"),
+                parseInt(props, "gamePlay.maxFrames"),
+                parsePosition(required(props, "mario.level" + level), "mario.level" + level),
+                parsePosition(required(props, "donkey.level" + level), "donkey.level" + level),
+                platforms,
+                // Ladders and barrels must be listed; the other collections are optional
+                parsePositions(props, "ladder.level" + level, true),
+                parsePositions(props, "barrel.level" + level, true),
+                parsePositions(props, "hammer.level" + level, false),
+                parsePositions(props, "blaster.level" + level, false),
+                normalMonkeys,
+                intelligentMonkeys);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    public Position getMario() {
+        return mario;
+    }
+
+    public Position getDonkey() {
+        return donkey;
+    }
+
+    public List<Position> getPlatforms() {
+        return platforms;
+    }
+
+    public List<Position> getLadders() {
+        return ladders;
+    }
+
+    public List<Position> getBarrels() {
+        return barrels;
+    }
+
+    public List<Position> getHammers() {
+        return hammers;
+    }
+
+    public List<Position> getBlasters() {
+        return blasters;
+    }
+
+    public List<MonkeyConfig> getNormalMonkeys() {
+        return normalMonkeys;
+    }
+
+    public List<MonkeyConfig> getIntelligentMonkeys() {
+        return intelligentMonkeys;
+    }
+
+    // Reads "<prefix>.count" and then "<prefix>.1" to "<prefix>.N"
+    private static List<Position> parsePositions(Properties props, String prefix, boolean countRequired) {
+        int count = parseCount(props, prefix + ".count", countRequired);
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String key = prefix + "." + i;
+            positions.add(parsePosition(required(props, key), key));
+        }
+        return positions;
+    }
+
+    // Format: x,y;direction;distance1,distance2,...
+    private static MonkeyConfig parseMonkey(Properties props, String key) {
+        String[] parts = required(props, key).split(";");
+        if (parts.length != 3) {
+            throw malformed(key, "expected x,y;direction;distance1,distance2,...");
+        }
+        String direction = parts[1].trim();
+        if (!direction.equalsIgnoreCase("left") && !direction.equalsIgnoreCase("right")) {
+            throw malformed(key, "direction must be left or right, got '" + direction + "'");
+        }
+        List<Integer> route = new ArrayList<>();
+        for (String distance : parts[2].split(",")) {
+            try {
+                route.add(Integer.parseInt(distance.trim()));
+            } catch (NumberFormatException e) {
+                throw malformed(key, "route distance '" + distance.trim() + "' is not a whole number");
+            }
+        }
+        return new MonkeyConfig(parsePosition(parts[0], key), direction.equalsIgnoreCase("right"), route);
+    }
+
+    private static Position parsePosition(String value, String key) {
+        String[] coords = value.split(",");
+        if (coords.length != 2) {
+            throw malformed(key, "expected x,y but got '" + value.trim() + "'");
+        }
+        try {
+            return new Position(Double.parseDouble(coords[0].trim()), Double.parseDouble(coords[1].trim()));
+        } catch (NumberFormatException e) {
+            throw malformed(key, "'" + value.trim() + "' is not a pair of numbers");
+        }
+    }
+
+    private static int parseCount(Properties props, String key, boolean required) {
+        if (!required && props.getProperty(key) == null) {
+            return 0;
+        }
+        int count = parseInt(props, key);
+        if (count < 0) {
+            throw malformed(key, "count must not be negative");
+        }
+        return count;
+    }
+
+    private static int parseInt(Properties props, String key) {
+        String value = required(props, key);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw malformed(key, "'" + value.trim() + "' is not a whole number");
+        }
+    }
+
+    private static String required(Properties props, String key) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing property for key: " + key);
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException malformed(String key, String problem) {
+        return new IllegalArgumentException("Malformed property " + key + ": " + problem);
+    }
+
+    private Position checkInside(Position position, String key) {
+        if (!(position.x() >= 0 && position.x() <= width && position.y() >= 0 && position.y() <= height)) {
+            throw malformed(key, "position " + position.x() + "," + position.y() + " is outside the window");
+        }
+        return position;
+    }
+
+    // Entry i of a list is named "<prefix>.<i+1>", matching the properties file
+    private List<Position> checkInside(List<Position> positions, String prefix) {
+        for (int i = 0; i < positions.size(); i++) {
+            checkInside(positions.get(i), prefix + "." + (i + 1));
+        }
+        return List.copyOf(positions);
+    }
+
+    private List<MonkeyConfig> checkMonkeys(List<MonkeyConfig> monkeys, String prefix) {
+        for (int i = 0; i < monkeys.size(); i++) {
+            MonkeyConfig monkey = monkeys.get(i);
+            String key = prefix + "." + (i + 1);
+            checkInside(monkey.position(), key);
+            if (monkey.route().isEmpty()) {
+                throw malformed(key, "route must not be empty");
+            }
+            for (int distance : monkey.route()) {
+                if (distance <= 0) {
+                    throw malformed(key, "route distances must be positive, got " + distance);
+                }
+            }
+        }
+        return List.copyOf(monkeys);
+    }
+}
@@ -0,0 +1,202 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Reads and writes the compiled binary level format.
+ * A compiled level holds the same data as a {@link LevelConfig} as fixed-width big-endian
+ * numbers, with each list stored as a count followed by its coordinates back to back.
+ * Reading memory-maps the file and copies each list out in one bulk get, so loading
+ * a level with tens of thousands of objects involves no text parsing.
+ *
+ * Layout (version 1):
+ * <pre>
+ * int magic "SDKL", int version, int level, int width, int height, int maxFrames
+ * double marioX, marioY, donkeyX, donkeyY
+ * 5 x position list (platforms, ladders, barrels, hammers, blasters): int n, double[2n] x,y pairs
+ * 2 x monkey list (normal, intelligent): int n, then per monkey
+ *     double x, y, byte movingRight, int routeLength, int[routeLength] route
+ * </pre>
+ */
+public final class LevelFile {
+    private static final int MAGIC = 0x53444B4C; // "SDKL"
+    private static final int VERSION = 1;
+
+    private LevelFile() {
+    }
+
+    /**
+     * Writes a level in the compiled format, replacing any existing file.
+     *
+     * @param level The level to write.
+     * @param file  Where to write it.
+     */
+    public static void write(LevelConfig level, Path file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            // 1) Header
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(level.getLevel());
+            out.writeInt(level.getWidth());
+            out.writeInt(level.getHeight());
+            out.writeInt(level.getMaxFrames());
+            out.writeDouble(level.getMario().x());
+            out.writeDouble(level.getMario().y());
+            out.writeDouble(level.getDonkey().x());
+            out.writeDouble(level.getDonkey().y());
+
+            // 2) Static and collectible objects
+            writePositions(out, level.getPlatforms());
+            writePositions(out, level.getLadders());
+            writePositions(out, level.getBarrels());
+            writePositions(out, level.getHammers());
+            writePositions(out, level.getBlasters());
+
+            // 3) Monkeys
+            writeMonkeys(out, level.getNormalMonkeys());
+            writeMonkeys(out, level.getIntelligentMonkeys());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write level file " + file, e);
+        }
+    }
+
+    /**
+     * Loads the level a command-line tool was pointed at.
+     *
+     * @param levelArg A level number from res/app.properties, or the path of a compiled ".lvl" file.
+     * @return The level.
+     */
+    public static LevelConfig load(String levelArg) {
+        if (levelArg.endsWith(".lvl")) {
+            return read(Path.of(levelArg));
+        }
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        return LevelConfig.load(gameProps, Integer.parseInt(levelArg));
+    }
+
+    /**
+     * Memory-maps a compiled level and builds its description.
+     *
+     * @param file The compiled level.
+     * @return The level, validated as if it had been loaded from properties.
+     * @throws IllegalArgumentException if the file is not a compiled level of a supported version,
+     *                                  or is truncated.
+     */
+    public static LevelConfig read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read level file " + file, e);
+        }
+    }
+
+    private static LevelConfig read(ByteBuffer buffer, Path file) {
+        try {
+            // 1) Header
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a compiled level: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported level file version " + version + ": " + file);
+            }
+            int level = buffer.getInt();
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int maxFrames = buffer.getInt();
+            LevelConfig.Position mario = new LevelConfig.Position(buffer.getDouble(), buffer.getDouble());
+            LevelConfig.Position donkey = new LevelConfig.Position(buffer.getDouble(), buffer.getDouble());
+
+            // 2) Static and collectible objects
+            List<LevelConfig.Position> platforms = readPositions(buffer);
+            List<LevelConfig.Position> ladders = readPositions(buffer);
+            List<LevelConfig.Position> barrels = readPositions(buffer);
+            List<LevelConfig.Position> hammers = readPositions(buffer);
+            List<LevelConfig.Position> blasters = readPositions(buffer);
+
+            // 3) Monkeys
+            List<LevelConfig.MonkeyConfig> normalMonkeys = readMonkeys(buffer);
+            List<LevelConfig.MonkeyConfig> intelligentMonkeys = readMonkeys(buffer);
+
+            return new LevelConfig(level, width, height, maxFrames, mario, donkey,
+                    platforms, ladders, barrels, hammers, blasters, normalMonkeys, intelligentMonkeys);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated level file: " + file, e);
+        }
+    }
+
+    private static void writePositions(DataOutputStream out, List<LevelConfig.Position> positions) throws IOException {
+        out.writeInt(positions.size());
+        for (LevelConfig.Position position : positions) {
+            out.writeDouble(position.x());
+            out.writeDouble(position.y());
+        }
+    }
+
+    private static void writeMonkeys(DataOutputStream out, List<LevelConfig.MonkeyConfig> monkeys) throws IOException {
+        out.writeInt(monkeys.size());
+        for (LevelConfig.MonkeyConfig monkey : monkeys) {
+            out.writeDouble(monkey.position().x());
+            out.writeDouble(monkey.position().y());
+            out.writeByte(monkey.movingRight() ? 1 : 0);
+            out.writeInt(monkey.route().size());
+            for (int distance : monkey.route()) {
+                out.writeInt(distance);
+            }
+        }
+    }
+
+    // Copies all x,y pairs out of the buffer in one bulk get
+    private static List<LevelConfig.Position> readPositions(ByteBuffer buffer) {
+        int count = readCount(buffer);
+        double[] coords = new double[count * 2];
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        doubles.get(coords);
+        buffer.position(buffer.position() + coords.length * Double.BYTES);
+
+        LevelConfig.Position[] positions = new LevelConfig.Position[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = new LevelConfig.Position(coords[2 * i], coords[2 * i + 1]);
+        }
+        return Arrays.asList(positions);
+    }
+
+    private static List<LevelConfig.MonkeyConfig> readMonkeys(ByteBuffer buffer) {
+        int count = readCount(buffer);
+        List<LevelConfig.MonkeyConfig> monkeys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LevelConfig.Position position = new LevelConfig.Position(buffer.getDouble(), buffer.getDouble());
+            boolean movingRight = buffer.get() != 0;
+            int[] route = new int[readCount(buffer)];
+            IntBuffer ints = buffer.asIntBuffer();
+            ints.get(route);
+            buffer.position(buffer.position() + route.length * Integer.BYTES);
+            monkeys.add(new LevelConfig.MonkeyConfig(position, movingRight, Arrays.stream(route).boxed().toList()));
+        }
+        return monkeys;
+    }
+
+    // Reads a list length, rejecting ones the rest of the file cannot possibly hold
+    private static int readCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt level file: bad list length " + count);
+        }
+        return count;
+    }
+}
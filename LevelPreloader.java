@@ -0,0 +1,58 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds levels on a background thread while another screen is running.
+ * Building a level means creating its game objects and compositing its static layer,
+ * which reads and decodes images; none of it needs the game thread. The screen switch
+ * then only has to wait for a future that is normally already complete.
+ */
+public class LevelPreloader {
+
+    /**
+     * A level whose world and static layer have been built but not yet shown.
+     *
+     * @param world       The level's game objects, not yet ticked.
+     * @param staticLayer The level's composited background and platforms.
+     */
+    public record PreparedLevel(GameWorld world, StaticLayer staticLayer) {
+    }
+
+    private final String backgroundPath;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "level-preloader");
+        thread.setDaemon(true); // never keeps the game from exiting
+        return thread;
+    });
+
+    /**
+     * Creates a preloader with its own background thread.
+     *
+     * @param backgroundPath Path to the background image every level is drawn on.
+     */
+    public LevelPreloader(String backgroundPath) {
+        this.backgroundPath = backgroundPath;
+    }
+
+    /**
+     * Starts building a level in the background.
+     * The world starts with no score; carry the previous level's score over with
+     * {@link GameWorld#carryOverScore(int)} when the level is shown.
+     *
+     * @param level The level to build.
+     * @return A future completed with the built level.
+     */
+    public CompletableFuture<PreparedLevel> preload(LevelConfig level) {
+        return CompletableFuture.supplyAsync(() -> {
+            GameEvents.LevelBuild event = new GameEvents.LevelBuild();
+            event.begin();
+            GameWorld world = new GameWorld(level, 0);
+            StaticLayer staticLayer = new StaticLayer(backgroundPath);
+            staticLayer.prepare(world);
+            event.level = level.getLevel();
+            event.commit();
+            return new PreparedLevel(world, staticLayer);
+        }, executor);
+    }
+}
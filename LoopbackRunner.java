@@ -0,0 +1,120 @@
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Runs a host and one remote player over loopback in a single thread, for testing the
+ * network mode. The host plays a level with bot input sent from the player, the player
+ * shows every state it receives on its own copy of the level, and the traffic, the host's
+ * network cost per tick (without the simulation) and how far the player's view lags the
+ * host's are printed.
+ */
+public class LoopbackRunner {
+
+    /**
+     * Entry point for the loopback runner.
+     *
+     * @param args Optional level number or compiled ".lvl" file (default 1), tick count (default 3600),
+     *             share of packets lost each way in percent (default 0) and seed (default 1).
+     */
+    public static void main(String[] args) {
+        String levelArg = args.length > 0 ? args[0] : "1";
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 3600;
+        double lossPercent = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        LevelConfig config = LevelFile.load(levelArg);
+        int packetBytes = Integer.parseInt(gameProps.getProperty("net.packetBytes", "1200"));
+        PhaseTimers.setEnabled(false);
+
+        try (NetServer server = new NetServer(0, packetBytes);
+             NetClient client = new NetClient("127.0.0.1", server.getPort())) {
+            GameWorld world = new GameWorld(config, 0);
+            GameWorld copy = new GameWorld(config, 0);
+            int[] hostView = new int[NetState.size(world)];
+            server.beginLevel(world);
+            server.simulateLoss(lossPercent / 100, seed);
+            client.simulateLoss(lossPercent / 100, seed + 1);
+            System.out.println("Level " + config.getLevel() + ": " + NetState.size(world) / NetState.FIELDS
+                    + " entities, " + packetBytes + "-byte packets, " + lossPercent + "% loss each way");
+
+            // 1) Play, timing the host's network work and the player's decoding separately
+            SplittableRandom bot = new SplittableRandom(seed);
+            int buttons = Controls.NONE;
+            long hostNanos = 0;
+            long playerNanos = 0;
+            long maxPacket = 0;
+            long lagTicks = 0;
+            long staleEntities = 0;
+            int played = 0;
+            boolean ended = false;
+            while (!ended && played < ticks) {
+                if (played % 30 == 0) {
+                    buttons = bot.nextInt(Controls.JUMP) | (bot.nextInt(8) == 0 ? Controls.JUMP : 0);
+                }
+                long t = System.nanoTime();
+                client.tick(buttons);
+                client.applyTo(copy);
+                playerNanos += System.nanoTime() - t;
+
+                long sentBefore = server.getBytesSent();
+                t = System.nanoTime();
+                int controls = server.receive();
+                hostNanos += System.nanoTime() - t;
+                ended = world.tick(controls);
+                t = System.nanoTime();
+                server.send();
+                hostNanos += System.nanoTime() - t;
+                maxPacket = Math.max(maxPacket, server.getBytesSent() - sentBefore);
+                played++;
+
+                // 2) How far the player is behind, in ticks and in entities that differ from the host's view
+                if (client.getLastTick() >= 0) {
+                    lagTicks += played - client.getLastTick();
+                    NetState.capture(world, hostView);
+                    staleEntities += countDifferences(hostView, client.getView());
+                }
+            }
+
+            // 3) Let the player catch up with no new state, to check it converges
+            int settle = 0;
+            for (; settle < GameWorld.TICKS_PER_SECOND * 30; settle++) {
+                client.tick(Controls.NONE);
+                server.receive();
+                server.send();
+                if (countDifferences(hostView, client.getView()) == 0) {
+                    break;
+                }
+            }
+
+            System.out.println(played + " ticks, won=" + world.hasWon() + ", score=" + world.getScore());
+            System.out.println("Host:   " + server.getPacketsSent() + " packets, "
+                    + String.format("%.0f", (double) server.getBytesSent() / server.getPacketsSent())
+                    + " bytes mean, " + maxPacket + " max, "
+                    + String.format("%.1f", (double) server.getBytesSent() * GameWorld.TICKS_PER_SECOND
+                    / server.getPacketsSent() / 1024) + " KiB/s");
+            System.out.println("Player: " + client.describe());
+            System.out.println("Per tick: host " + String.format("%.1f", hostNanos / 1e3 / played)
+                    + "us (receive, capture, encode and send), player "
+                    + String.format("%.1f", playerNanos / 1e3 / played) + "us (receive, decode and apply)");
+            System.out.println("Lag: " + String.format("%.2f", (double) lagTicks / played) + " ticks, "
+                    + String.format("%.1f", (double) staleEntities / played) + " entities behind on average; "
+                    + (settle < GameWorld.TICKS_PER_SECOND * 30 ? "caught up " + settle + " ticks after play stopped"
+                    : "still behind after " + settle + " ticks"));
+        }
+    }
+
+    private static int countDifferences(int[] host, int[] player) {
+        if (host.length != player.length) {
+            return host.length / NetState.FIELDS;
+        }
+        int differing = 0;
+        for (int at = 0; at < host.length; at += NetState.FIELDS) {
+            if (host[at] != player[at] || host[at + 1] != player[at + 1]
+                    || host[at + 2] != player[at + 2] || host[at + 3] != player[at + 3]) {
+                differing++;
+            }
+        }
+        return differing;
+    }
+}
@@ -1,8 +1,6 @@
-import bagel.*;
-import bagel.util.Rectangle;
-import bagel.util.Colour;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
-import java.awt.event.InputEvent;
 
 /**
  * Represents the player-controlled character, Mario.
@@ -10,20 +8,30 @@ import java.awt.event.InputEvent;
  */
 public class Mario {
     private double x, y; // Mario's position
+    private double prevX, prevY; // Position at the start of the last tick
     private double velocityY = 0; // Vertical velocity
     private boolean isJumping = false; // Whether Mario is currently jumping
     private boolean hasHammer = false; // Whether Mario has collected a hammer
     private boolean hasBlaster = false;
     private int bulletCount = 0;
 
-    // Mario images for different states
-    private Image marioImage;
-    private final Image MARIO_RIGHT_IMAGE;
-    private final Image MARIO_LEFT_IMAGE;
-    private final Image MARIO_HAMMER_LEFT_IMAGE;
-    private final Image MARIO_HAMMER_RIGHT_IMAGE;
-    private final Image MARIO_BLASTER_RIGHT_IMAGE = new Image("res/mario_blaster_right.png");
-    private final Image MARIO_BLASTER_LEFT_IMAGE = new Image("res/mario_blaster_left.png");
+    // Mario sprites for different states
+    private String marioImage;
+    private static final String MARIO_RIGHT_IMAGE = "res/mario_right.png";
+    private static final String MARIO_LEFT_IMAGE = "res/mario_left.png";
+    private static final String MARIO_HAMMER_LEFT_IMAGE = "res/mario_hammer_left.png";
+    private static final String MARIO_HAMMER_RIGHT_IMAGE = "res/mario_hammer_right.png";
+    private static final String MARIO_BLASTER_RIGHT_IMAGE = "res/mario_blaster_right.png";
+    private static final String MARIO_BLASTER_LEFT_IMAGE = "res/mario_blaster_left.png";
+    // Every sprite, so a snapshot can store the current one as an index
+    private static final List<String> IMAGES = Arrays.asList(MARIO_RIGHT_IMAGE, MARIO_LEFT_IMAGE,
+            MARIO_HAMMER_LEFT_IMAGE, MARIO_HAMMER_RIGHT_IMAGE, MARIO_BLASTER_RIGHT_IMAGE, MARIO_BLASTER_LEFT_IMAGE);
+    // Size of each sprite in IMAGES, read once so switching sprites never goes back to the shared cache
+    private static final double[] WIDTHS = IMAGES.stream().mapToDouble(Sprites::width).toArray();
+    private static final double[] HEIGHTS = IMAGES.stream().mapToDouble(Sprites::height).toArray();
+
+    /** Bytes written by {@link #saveState(ByteBuffer)}. */
+    public static final int STATE_BYTES = 5 * Double.BYTES + Integer.BYTES + 5;
 
 
 
@@ -32,36 +40,37 @@ public class Mario {
     private static final double MOVE_SPEED = 3.5;
     private static final double CLIMB_SPEED = 2;
 
-    private static double height;
-    private static double width;
+    private double height;
+    private double width;
     private boolean isFacingRight = true; // Mario's facing direction
 
+    private final double worldWidth;
+    private final double worldHeight;
+    private final Aabb bounds = new Aabb();
+
 
 
     /**
-     * Constructs a Mario character using the starting position defined
-     * in the app.properties file for the given level.
+     * Constructs a Mario character at the level's starting position.
      *
-     * @param level the level number (1 or 2) used to look up the starting position
+     * @param x           the starting x-coordinate (sprite centre)
+     * @param y           the starting y-coordinate (sprite centre)
+     * @param worldWidth  the width of the play area Mario is kept inside
+     * @param worldHeight the height of the play area Mario is kept inside
      */
 
-    public Mario(int level) {
-        String key = "mario.level" + level;
-        String value = IOUtils.getProperty(key);
-        String[] coords = value.split(",");
-        this.x = Double.parseDouble(coords[0].trim());
-        this.y = Double.parseDouble(coords[1].trim());
-        // Load images for left and right-facing Mario
-        this.MARIO_RIGHT_IMAGE = new Image("res/mario_right.png");
-        this.MARIO_LEFT_IMAGE = new Image("res/mario_left.png");
-        this.MARIO_HAMMER_RIGHT_IMAGE = new Image("res/mario_hammer_right.png");
-        this.MARIO_HAMMER_LEFT_IMAGE = new Image("res/mario_hammer_left.png");
+    public Mario(double x, double y, double worldWidth, double worldHeight) {
+        this.x = x;
+        this.y = y;
+        savePosition();
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
 
         // Default Mario starts facing right
         this.marioImage = MARIO_HAMMER_RIGHT_IMAGE;
 
-        width = marioImage.getWidth();
-        height = marioImage.getHeight();
+        width = widthOf(marioImage);
+        height = heightOf(marioImage);
     }
 
     /**
@@ -84,50 +93,47 @@ public class Mario {
 
     /**
      * Gets Mario's bounding box for collision detection.
+     * Mario moves in several small steps during an update, so the box is
+     * refreshed in place on every call rather than allocated.
      *
-     * @return A {@link Rectangle} representing Mario's collision area.
+     * @return An {@link Aabb} representing Mario's collision area.
      */
-    public Rectangle getBoundingBox() {
-        return new Rectangle(
-                x - (width / 2),
-                y - (height / 2),
-                width,
-                height
-        );
+    public Aabb getBoundingBox() {
+        return bounds.setCentered(x, y, width, height);
     }
 
     /**
-     * Updates Mario's movement, jumping, climbing, weapon collection, shooting, and rendering.
+     * Updates Mario's movement, jumping, climbing, weapon collection and shooting.
      *
-     * @param input     The player's input (keyboard/mouse).
+     * @param buttons   The player's input for this tick, as {@link Controls} flags.
      * @param ladders   The ladders in the level.
-     * @param platforms The platforms in the level.
+     * @param platforms The level's platform index.
      * @param hammers   All hammer objects in the level.
      * @param blasters  All blaster objects in the level.
-     * @param bullets   The global bullet list (to add bullets to).
+     * @param bullets   The level's bullet store (to add bullets to).
      */
-    public void update(Input input, Ladder[] ladders, Platform[] platforms,
-                       List<Hammer> hammers, List<Blaster> blasters, List<Bullet> bullets) {
+    public void update(int buttons, Ladder[] ladders, PlatformIndex platforms,
+                       List<Hammer> hammers, List<Blaster> blasters, Bullets bullets) {
 
         // 1) Handle left/right movement
-        handleHorizontalMovement(input);
+        handleHorizontalMovement(buttons);
 
         // 2) Handle hammer/blaster collection
-        for (Hammer hammer : hammers) {
-            collectHammer(hammer);
+        for (int i = 0; i < hammers.size(); i++) {
+            collectHammer(hammers.get(i));
         }
-        for (Blaster blaster : blasters) {
-            collectBlaster(blaster);
+        for (int i = 0; i < blasters.size(); i++) {
+            collectBlaster(blasters.get(i));
         }
 
         // 3) Update sprite after weapon pickup or direction change
         updateSprite();
 
         // 4) Ladder logic
-        boolean isOnLadder = handleLadders(input, ladders);
+        boolean isOnLadder = handleLadders(buttons, ladders);
 
         // 5) Jumping input
-        boolean wantsToJump = input.wasPressed(Keys.SPACE);
+        boolean wantsToJump = Controls.isSet(buttons, Controls.JUMP);
 
         // 6) Gravity (if not on ladder)
         if (!isOnLadder) {
@@ -145,53 +151,56 @@ public class Mario {
         handleJumping(onPlatform, wantsToJump);
 
         // 10) Fire bullets if 'S' pressed and has blaster
-        if (input.wasPressed(Keys.S) && hasBlaster && bulletCount > 0) {
-            bullets.add(new Bullet(x, y, isFacingRight)); // 👈 你需要有 Bullet 构造器支持
-            consumeBullet();;
+        if (Controls.isSet(buttons, Controls.SHOOT) && hasBlaster && bulletCount > 0) {
+            if (bullets.spawn(x, y, isFacingRight)) {
+                consumeBullet();
+            }
         }
 
         // 11) Prevent going out of screen
         enforceBoundaries();
-
-        // 12) Draw Mario
-        draw();
     }
 
 
     /**
      * Handles Mario's interaction with platforms to determine if he is standing on one.
      * Mario will only snap to a platform if he is moving downward (velocityY >= 0),
-     * preventing his jump from being interrupted in mid-air.
+     * preventing his jump from being interrupted in mid-air. The whole of this tick's fall
+     * is checked, so he lands on the first platform top he crossed even if he fell past it.
+     * Package-private so the benchmarks can call it directly.
      *
-     * @param platforms An array of {@link Platform} objects representing the platforms in the game.
+     * @param platforms The {@link PlatformIndex} over the platforms in the game.
      * @return {@code true} if Mario is standing on a platform, {@code false} otherwise.
      */
-    private boolean handlePlatforms(Platform[] platforms) {
+    boolean handlePlatforms(PlatformIndex platforms) {
         boolean onPlatform = false;
 
         // We'll only snap Mario to a platform if he's moving downward (velocityY >= 0)
         // so we don't kill his jump in mid-air.
         if (velocityY >= 0) {
-            for (Platform platform : platforms) {
-                Rectangle marioBounds    = getBoundingBox();
-                Rectangle platformBounds = platform.getBoundingBox();
-
-                if (marioBounds.intersects(platformBounds)) {
-                    double marioBottom = marioBounds.bottom();
-                    double platformTop = platformBounds.top();
-
-                    // If Mario's bottom is at or above the platform's top
-                    // and not far below it (a small threshold based on velocity)
-                    if (marioBottom <= platformTop + velocityY) {
-                        // Snap Mario so his bottom = the platform top
-                        y = platformTop - (marioImage.getHeight() / 2);
-                        velocityY = 0;
-                        isJumping = false;
-                        onPlatform = true;
-                        break; // We found a platform collision
-                    }
+            // Every platform the box touched on its way down from the start of the fall
+            Aabb marioBounds = getBoundingBox();
+            double marioBottom = marioBounds.bottom();
+            int count = platforms.query(marioBounds.left(), marioBounds.top() - velocityY,
+                    marioBounds.right(), marioBottom);
+            double landingTop = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                double platformTop = platforms.getResult(i).getTopY();
+
+                // If Mario's bottom was at or above the platform's top before the fall
+                // and has reached it, the highest such platform is the one he landed on
+                if (marioBottom <= platformTop + velocityY && marioBottom > platformTop
+                        && platformTop < landingTop) {
+                    landingTop = platformTop;
                 }
             }
+            if (landingTop != Double.POSITIVE_INFINITY) {
+                // Snap Mario so his bottom = the platform top
+                y = landingTop - (height / 2);
+                velocityY = 0;
+                isJumping = false;
+                onPlatform = true;
+            }
         }
         return onPlatform;
     }
@@ -202,41 +211,42 @@ public class Mario {
      *
      * Mario can only climb if he is within the horizontal boundaries of the ladder.
      * He stops sliding unintentionally when not pressing movement keys.
+     * Package-private so the benchmarks can call it directly.
      *
-     * @param input   The {@link Input} object that checks for user key presses.
+     * @param buttons The player's input for this tick, as {@link Controls} flags.
      * @param ladders An array of {@link Ladder} objects representing ladders in the game.
      * @return {@code true} if Mario is on a ladder, {@code false} otherwise.
      */
-    private boolean handleLadders(Input input, Ladder[] ladders) {
+    boolean handleLadders(int buttons, Ladder[] ladders) {
         boolean isOnLadder = false;
         for (Ladder ladder : ladders) {
             double ladderLeft  = ladder.getX() - (ladder.getWidth() / 2);
             double ladderRight = ladder.getX() + (ladder.getWidth() / 2);
-            double marioRight  = x + (marioImage.getWidth() / 2);
-            double marioBottom = y + (marioImage.getHeight() / 2);
+            double marioRight  = x + (width / 2);
+            double marioBottom = y + (height / 2);
             double ladderTop    = ladder.getY() - (ladder.getHeight() / 2);
             double ladderBottom = ladder.getY() + (ladder.getHeight() / 2);
 
             if (isTouchingLadder(ladder)) {
                 // Check horizontal overlap so Mario is truly on the ladder
-                if (marioRight - marioImage.getWidth() / 2 > ladderLeft && marioRight - marioImage.getWidth() / 2 < ladderRight) {
+                if (marioRight - width / 2 > ladderLeft && marioRight - width / 2 < ladderRight) {
                     isOnLadder = true;
 
                     // Stop Mario from sliding up when not moving**
-                    if (!input.isDown(Keys.UP) && !input.isDown(Keys.DOWN)) {
+                    if (!Controls.isSet(buttons, Controls.UP) && !Controls.isSet(buttons, Controls.DOWN)) {
                         velocityY = 0;  // Prevent sliding inertia effect
                     }
 
                     // ----------- Climb UP -----------
-                    if (input.isDown(Keys.UP)) {
+                    if (Controls.isSet(buttons, Controls.UP)) {
                         y -= CLIMB_SPEED;
                         velocityY = 0;
                     }
 
                     // ----------- Climb DOWN -----------
-                    if (input.isDown(Keys.DOWN)) {
+                    if (Controls.isSet(buttons, Controls.DOWN)) {
                         double nextY = y + CLIMB_SPEED;
-                        double nextBottom = nextY + (marioImage.getHeight() / 2);
+                        double nextBottom = nextY + (height / 2);
 
                         if (marioBottom > ladderTop && nextBottom <= ladderBottom) {
                             y = nextY;
@@ -249,11 +259,11 @@ public class Mario {
                         }
                     }
                 }
-            } else if (marioBottom == ladderTop && input.isDown(Keys.DOWN) && (marioRight - marioImage.getWidth() / 2 > ladderLeft && marioRight - marioImage.getWidth() / 2  < ladderRight)) {
+            } else if (marioBottom == ladderTop && Controls.isSet(buttons, Controls.DOWN) && (marioRight - width / 2 > ladderLeft && marioRight - width / 2  < ladderRight)) {
                 double nextY = y + CLIMB_SPEED;
                 y = nextY;
                 velocityY = 0; // ignore gravity
-            } else if (marioBottom == ladderBottom && input.isDown(Keys.DOWN) && (marioRight - marioImage.getWidth() / 2 > ladderLeft && marioRight - marioImage.getWidth() / 2  < ladderRight)) {
+            } else if (marioBottom == ladderBottom && Controls.isSet(buttons, Controls.DOWN) && (marioRight - width / 2 > ladderLeft && marioRight - width / 2  < ladderRight)) {
                 velocityY = 0; // ignore gravity
             }
         }
@@ -261,11 +271,11 @@ public class Mario {
     }
 
     /** Handles horizontal movement based on player input. */
-    private void handleHorizontalMovement(Input input) {
-        if (input.isDown(Keys.LEFT)) {
+    private void handleHorizontalMovement(int buttons) {
+        if (Controls.isSet(buttons, Controls.LEFT)) {
             x -= MOVE_SPEED;
             isFacingRight = false;
-        } else if (input.isDown(Keys.RIGHT)) {
+        } else if (Controls.isSet(buttons, Controls.RIGHT)) {
             x += MOVE_SPEED;
             isFacingRight = true;
         }
@@ -285,7 +295,7 @@ public class Mario {
 
             hammer.collect();
             updateSprite();
-            System.out.println("Hammer collected!");
+            GameLog.info("Hammer collected!");
         }
     }
 
@@ -299,7 +309,7 @@ public class Mario {
             pickUpBlaster(blaster.getAmmo());
             blaster.collect();
             updateSprite();
-            System.out.println("Blaster collected! Bullets: " + bulletCount);
+            GameLog.info("Blaster collected! Bullets: {}", bulletCount);
         }
     }
 
@@ -313,11 +323,11 @@ public class Mario {
         if (onPlatform && wantsToJump) {
             velocityY = JUMP_STRENGTH;
             isJumping = true;
-            System.out.println("Jumping!");
+            GameLog.debug("Jumping!");
         }
-        double bottomOfMario = y + (marioImage.getHeight() / 2);
-        if (bottomOfMario > ShadowDonkeyKong.getScreenHeight()) {
-            y = ShadowDonkeyKong.getScreenHeight() - (marioImage.getHeight() / 2);
+        double bottomOfMario = y + (height / 2);
+        if (bottomOfMario > worldHeight) {
+            y = worldHeight - (height / 2);
             velocityY = 0;
             isJumping = false;
         }
@@ -329,7 +339,7 @@ public class Mario {
      */
     private void enforceBoundaries() {
         // Calculate half the width of the Mario image (used for centering and boundary checks)
-        double halfW = marioImage.getWidth() / 2;
+        double halfW = width / 2;
 
         // Prevent Mario from moving beyond the left edge of the screen
         if (x < halfW) {
@@ -337,18 +347,18 @@ public class Mario {
         }
 
         // Prevent Mario from moving beyond the right edge of the screen
-        double maxX = ShadowDonkeyKong.getScreenWidth() - halfW;
+        double maxX = worldWidth - halfW;
         if (x > maxX) {
             x = maxX;
         }
 
         // Calculate Mario's bottom edge position
-        double bottomOfMario = y + (marioImage.getHeight() / 2);
+        double bottomOfMario = y + (height / 2);
 
         // Prevent Mario from falling below the bottom of the screen
-        if (bottomOfMario > ShadowDonkeyKong.getScreenHeight()) {
+        if (bottomOfMario > worldHeight) {
             // Reposition Mario to stand on the bottom edge
-            y = ShadowDonkeyKong.getScreenHeight() - (marioImage.getHeight() / 2);
+            y = worldHeight - (height / 2);
 
             // Stop vertical movement and reset jumping state
             velocityY = 0;
@@ -357,14 +367,22 @@ public class Mario {
     }
 
 
+    private static double widthOf(String image) {
+        return WIDTHS[IMAGES.indexOf(image)];
+    }
+
+    private static double heightOf(String image) {
+        return HEIGHTS[IMAGES.indexOf(image)];
+    }
+
     /**
      * Switch Mario's sprite (left/right, or hammer/no-hammer).
      * Adjust Mario's 'y' so that the bottom edge stays consistent.
      */
     private void updateSprite() {
         // 1) Remember the old image and its bottom
-        Image oldImage = marioImage;
-        double oldHeight = oldImage.getHeight();
+        String oldImage = marioImage;
+        double oldHeight = heightOf(oldImage);
         double oldBottom = y + (oldHeight / 2);
 
         // 2) Assign the new image based on facing & state
@@ -377,23 +395,74 @@ public class Mario {
         }
 
         // 3) Preserve bottom position
-        double newHeight = marioImage.getHeight();
+        double newHeight = heightOf(marioImage);
         double newBottom = y + (newHeight / 2);
         y -= (newBottom - oldBottom);
 
         // 4) Update width/height
-        width  = marioImage.getWidth();
+        width  = widthOf(marioImage);
         height = newHeight;
     }
 
 
 
     /**
-     * Draws Mario on the screen.
+     * Gets the path of the sprite matching Mario's current state.
+     *
+     * @return The image path used to draw Mario.
      */
-    public void draw() {
-        marioImage.draw(x, y);
-//    drawBoundingBox(); // Uncomment for debugging
+    public String getImagePath() {
+        return marioImage;
+    }
+
+    /**
+     * Gets Mario's x-coordinate (sprite centre).
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets Mario's y-coordinate (sprite centre).
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Remembers the current position as the start of the next tick, for render interpolation.
+     */
+    public void savePosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    /**
+     * Gets the x-coordinate to draw at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderX(double alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    /**
+     * Gets how far Mario has moved along x since the start of the tick, for swept collision tests.
+     */
+    public double getMoveX() {
+        return x - prevX;
+    }
+
+    /**
+     * Gets how far Mario has moved along y since the start of the tick, for swept collision tests.
+     */
+    public double getMoveY() {
+        return y - prevY;
+    }
+
+    /**
+     * Gets the y-coordinate to draw at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderY(double alpha) {
+        return prevY + (y - prevY) * alpha;
     }
 
 
@@ -404,7 +473,7 @@ public class Mario {
      * @return {@code true} if Mario is touching the ladder, {@code false} otherwise.
      */
     private boolean isTouchingLadder(Ladder ladder) {
-        Rectangle marioBounds = getBoundingBox();
+        Aabb marioBounds = getBoundingBox();
         return marioBounds.intersects(ladder.getBoundingBox());
     }
 
@@ -415,19 +484,19 @@ public class Mario {
      * @return {@code true} if Mario is touching the hammer, {@code false} otherwise.
      */
     private boolean isTouchingHammer(Hammer hammer) {
-        Rectangle marioBounds = getBoundingBox();
+        Aabb marioBounds = getBoundingBox();
         return marioBounds.intersects(hammer.getBoundingBox());
     }
 
     /**
      * Checks if Mario is touching a barrel.
      *
-     * @param barrel The barrel object to check collision with.
+     * @param barrels The level's barrels.
+     * @param index   Index of the barrel to check collision with.
      * @return {@code true} if Mario is touching the barrel, {@code false} otherwise.
      */
-    public boolean isTouchingBarrel(Barrel barrel) {
-        Rectangle marioBounds = getBoundingBox();
-        return marioBounds.intersects(barrel.getBoundingBox());
+    public boolean isTouchingBarrel(Barrels barrels, int index) {
+        return barrels.intersects(index, getBoundingBox());
     }
 
     /**
@@ -437,21 +506,22 @@ public class Mario {
      * @return {@code true} if Mario has reached Donkey Kong, {@code false} otherwise.
      */
     public boolean hasReached(Donkey donkey) {
-        Rectangle marioBounds = getBoundingBox();
+        Aabb marioBounds = getBoundingBox();
         return marioBounds.intersects(donkey.getBoundingBox());
     }
 
     /**
      * Determines if Mario successfully jumps over a barrel.
      *
-     * @param barrel The barrel object to check.
+     * @param barrels The level's barrels.
+     * @param index   Index of the barrel to check.
      * @return {@code true} if Mario successfully jumps over the barrel, {@code false} otherwise.
      */
-    public boolean jumpOver(Barrel barrel) {
+    public boolean jumpOver(Barrels barrels, int index) {
         return isJumping
-                && Math.abs(this.x - barrel.getX()) <= 1
-                && (this.y < barrel.getY())
-                && ((this.y + height / 2) >= (barrel.getY() + barrel.getBarrelImage().getHeight() / 2
+                && Math.abs(this.x - barrels.getX(index)) <= 1
+                && (this.y < barrels.getY(index))
+                && ((this.y + height / 2) >= (barrels.getY(index) + barrels.getHeight(index) / 2
                 - (JUMP_STRENGTH * JUMP_STRENGTH) / (2 * Physics.MARIO_GRAVITY) - height / 2));
     }
 
@@ -487,6 +557,72 @@ public class Mario {
         return bulletCount;
     }
 
+    /**
+     * Packs Mario's sprite, weapons, facing and jump state into one int for the network mode.
+     */
+    public int getNetFlags() {
+        return IMAGES.indexOf(marioImage)
+                | (hasHammer ? 1 << 3 : 0)
+                | (hasBlaster ? 1 << 4 : 0)
+                | (isFacingRight ? 1 << 5 : 0)
+                | (isJumping ? 1 << 6 : 0);
+    }
+
+    /**
+     * Shows Mario as the network host last sent him, on a client that does not simulate.
+     * The old position becomes the start of the tick, so the move is drawn smoothly.
+     *
+     * @param newX        The host's x-coordinate.
+     * @param newY        The host's y-coordinate.
+     * @param netFlags    State packed by {@link #getNetFlags()}.
+     * @param newBullets  Bullets left.
+     */
+    public void applyNetState(double newX, double newY, int netFlags, int newBullets) {
+        savePosition();
+        x = newX;
+        y = newY;
+        marioImage = IMAGES.get(netFlags & 7);
+        hasHammer = (netFlags & 1 << 3) != 0;
+        hasBlaster = (netFlags & 1 << 4) != 0;
+        isFacingRight = (netFlags & 1 << 5) != 0;
+        isJumping = (netFlags & 1 << 6) != 0;
+        bulletCount = newBullets;
+        width = widthOf(marioImage);
+        height = heightOf(marioImage);
+    }
+
+    /**
+     * Writes Mario's position, velocity, weapons and sprite into a snapshot.
+     */
+    public void saveState(ByteBuffer out) {
+        out.putDouble(x).putDouble(y).putDouble(prevX).putDouble(prevY).putDouble(velocityY);
+        out.putInt(bulletCount);
+        out.put((byte) IMAGES.indexOf(marioImage));
+        GameSnapshot.putBoolean(out, isJumping);
+        GameSnapshot.putBoolean(out, hasHammer);
+        GameSnapshot.putBoolean(out, hasBlaster);
+        GameSnapshot.putBoolean(out, isFacingRight);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(ByteBuffer)}; the size follows from the sprite.
+     */
+    public void restoreState(ByteBuffer in) {
+        x = in.getDouble();
+        y = in.getDouble();
+        prevX = in.getDouble();
+        prevY = in.getDouble();
+        velocityY = in.getDouble();
+        bulletCount = in.getInt();
+        marioImage = IMAGES.get(in.get());
+        isJumping = GameSnapshot.getBoolean(in);
+        hasHammer = GameSnapshot.getBoolean(in);
+        hasBlaster = GameSnapshot.getBoolean(in);
+        isFacingRight = GameSnapshot.getBoolean(in);
+        width = widthOf(marioImage);
+        height = heightOf(marioImage);
+    }
+
 
 
 
@@ -1,9 +1,4 @@
-import bagel.Image;
-import bagel.util.Point;
-import bagel.util.Rectangle;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.nio.ByteBuffer;
 
 /**
  * Base class for all monkeys.
@@ -11,66 +6,60 @@ import java.util.stream.Collectors;
  */
 public abstract class Monkey {
     protected double x, y;// Position
+    private double prevX, prevY;// Position at the start of the last tick
     protected double velocityY = 0;// Vertical velocity
     protected boolean landed = false;
     protected boolean dead = false;
-    protected final Image monkeyLeftImage;
-    protected final Image monkeyRightImage;
+    protected final String monkeyLeftImage;
+    protected final String monkeyRightImage;
 
     protected double width;
     protected double height;
+    // Sprite sizes, read once so the tick never goes back to the shared sprite cache
+    private final double leftWidth, leftHeight, rightWidth, rightHeight;
+    private final Aabb bounds = new Aabb();
 
     private static final double GRAVITY = 0.4;
     private static final double TERMINAL_VELOCITY = 5.0;
     private static final double SPEED = 1.0; // 默认速度，子类可重写
 
     // Movement pattern
-    protected List<Integer> routeDistances;
+    protected final int[] routeDistances;
     protected int currentRouteIndex = 0;
     protected double distanceMovedInCurrentSegment = 0;
     protected boolean movingRight ;
 
     /**
-     * Constructs a monkey using a config string.
-     * Format: "x,y;direction;route1,route2,..."
+     * Constructs a monkey from its parsed level configuration.
      */
-    public Monkey(String configEntry, String leftImagePath, String rightImagePath) {
-        this.monkeyLeftImage = new Image(leftImagePath);
-        this.monkeyRightImage = new Image(rightImagePath);
-        // Format: x,y;direction;route1,route2,...
-        String[] parts = configEntry.split(";");
-        String[] pos = parts[0].split(",");
-        this.x = Double.parseDouble(pos[0].trim());
-        this.y = Double.parseDouble(pos[1].trim());
-        this.width = monkeyLeftImage.getWidth();
-        this.height = monkeyLeftImage.getHeight();
-
-        this.movingRight = parts[1].trim().equalsIgnoreCase("right");
-
-        this.routeDistances = parseRoute(parts[2]);
-    }
-
-    // Parses comma-separated walk distances from string
-    private List<Integer> parseRoute(String routeStr) {
-        String[] distances = routeStr.split(",");
-        return distances.length == 0
-                ? List.of(30) // fallback default
-                : Arrays.stream(distances)  // ✅ 修正
-                .map(String::trim)
-                .map(Integer::parseInt)
-                .collect(Collectors.toList());  // ✅ 兼容 Java 8+
+    public Monkey(LevelConfig.MonkeyConfig config, String leftImagePath, String rightImagePath) {
+        this.monkeyLeftImage = leftImagePath;
+        this.monkeyRightImage = rightImagePath;
+        this.x = config.position().x();
+        this.y = config.position().y();
+        savePosition();
+        this.leftWidth = Sprites.width(monkeyLeftImage);
+        this.leftHeight = Sprites.height(monkeyLeftImage);
+        this.rightWidth = Sprites.width(monkeyRightImage);
+        this.rightHeight = Sprites.height(monkeyRightImage);
+        this.width = leftWidth;
+        this.height = leftHeight;
+
+        this.movingRight = config.movingRight();
+
+        this.routeDistances = config.route().stream().mapToInt(Integer::intValue).toArray();
+        updateBounds();
     }
 
 
     /**
-     * Updates monkey logic every frame: gravity → move → draw
+     * Updates monkey logic every frame: gravity → move
      */
-    public void update(Platform[] platforms) {
+    public void update(PlatformIndex platforms) {
         applyGravity(platforms);
 
         if (!dead) {
             move(platforms);
-            draw();
         }
     }
 
@@ -78,7 +67,7 @@ public abstract class Monkey {
      * Applies gravity if monkey is in the air.
      * Checks if feet are touching a platform.
      */
-    protected void applyGravity(Platform[] platforms) {
+    protected void applyGravity(PlatformIndex platforms) {
         landed = false;  // 每帧重设为未落地，重新判断
 
         velocityY += GRAVITY;
@@ -87,17 +76,14 @@ public abstract class Monkey {
         }
         y += velocityY;
 
-        // Create a small rectangle just under the feet
-        Rectangle feet = new Rectangle(x, y + height, width, 1);
-
-        for (Platform p : platforms) {
-            if (feet.intersects(p.getBoundingBox())) {
-                y = p.getTopY() - height;
-                velocityY = 0;
-                landed = true;
-                break;
-            }
+        // Probe a small rectangle just under the feet
+        Platform p = platforms.firstOverlapping(x, y + height, x + width, y + height + 1);
+        if (p != null) {
+            y = p.getTopY() - height;
+            velocityY = 0;
+            landed = true;
         }
+        updateBounds();
     }
 
 
@@ -105,8 +91,8 @@ public abstract class Monkey {
      * Handles monkey walking according to its route.
      * Turns back early if walking off a platform.
      */
-    protected void move(Platform[] platforms) {
-        if (routeDistances.isEmpty()) return;
+    protected void move(PlatformIndex platforms) {
+        if (routeDistances.length == 0) return;
 
         double step = getSpeed();
         double dx = movingRight ? step : -step;
@@ -119,26 +105,16 @@ public abstract class Monkey {
             return;
         }
 
-        // Create a 1-pixel rectangle at the next edge of foot
+        // Probe a 1-pixel rectangle at the next edge of foot
         double edgeX = movingRight ? nextX + width : nextX;
-        Rectangle edgeFeet = new Rectangle(edgeX, y + height, 1, 1);
-
-        boolean nextStepWillFall = true;
-
-        for (Platform p : platforms) {
-            if (edgeFeet.intersects(p.getBoundingBox())) {
-                nextStepWillFall = false;
-                break;
-            }
-        }
-
-
+        boolean nextStepWillFall = !platforms.overlapsAny(edgeX, y + height, edgeX + 1, y + height + 1);
 
         // Turn around if next step would fall off
         if (nextStepWillFall) {
             distanceMovedInCurrentSegment = 0;
-            currentRouteIndex = (currentRouteIndex + 1) % routeDistances.size();
+            currentRouteIndex = (currentRouteIndex + 1) % routeDistances.length;
             movingRight = !movingRight;
+            updateBounds();
             return;
         }
 
@@ -148,11 +124,12 @@ public abstract class Monkey {
         distanceMovedInCurrentSegment += Math.abs(dx);
 
         // Reached the end of current distance segment
-        if (distanceMovedInCurrentSegment >= routeDistances.get(currentRouteIndex)) {
+        if (distanceMovedInCurrentSegment >= routeDistances[currentRouteIndex]) {
             distanceMovedInCurrentSegment = 0;
-            currentRouteIndex = (currentRouteIndex + 1) % routeDistances.size();
+            currentRouteIndex = (currentRouteIndex + 1) % routeDistances.length;
             movingRight = !movingRight;
         }
+        updateBounds();
     }
 
     /**
@@ -164,22 +141,24 @@ public abstract class Monkey {
     }
 
     /**
-     * Draws the monkey sprite based on direction.
+     * Returns the path of the monkey sprite based on direction.
+     * The sprite is drawn from its top-left corner at ({@link #getX()}, {@link #getY()}).
      */
-    public void draw() {
-        if (movingRight) {
-            monkeyRightImage.drawFromTopLeft(x, y);
-        } else {
-            monkeyLeftImage.drawFromTopLeft(x, y);
-        }
+    public String getImagePath() {
+        return movingRight ? monkeyRightImage : monkeyLeftImage;
     }
 
     /**
      * Returns the collision box of the monkey.
      */
-    public Rectangle getBoundingBox() {
-        Image currentImage = movingRight ? monkeyRightImage : monkeyLeftImage;
-        return currentImage.getBoundingBoxAt(new Point(x + width / 2, y + height / 2));
+    public Aabb getBoundingBox() {
+        return bounds;
+    }
+
+    // The box uses the current sprite's size, centred on the monkey's body
+    private void updateBounds() {
+        bounds.setCentered(x + width / 2, y + height / 2,
+                movingRight ? rightWidth : leftWidth, movingRight ? rightHeight : leftHeight);
     }
 
     /**
@@ -199,25 +178,115 @@ public abstract class Monkey {
     public double getX() { return x; }
     public double getY() { return y; }
 
+    /**
+     * Remembers the current position as the start of the next tick, for render interpolation.
+     */
+    public void savePosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    /**
+     * Gets the x-coordinate to draw at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderX(double alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    /**
+     * Gets how far the monkey has moved along x since the start of the tick, for swept collision tests.
+     */
+    public double getMoveX() {
+        return x - prevX;
+    }
+
+    /**
+     * Gets how far the monkey has moved along y since the start of the tick, for swept collision tests.
+     */
+    public double getMoveY() {
+        return y - prevY;
+    }
+
+    /**
+     * Gets the y-coordinate to draw at, a fraction {@code alpha} of the way through the last tick.
+     */
+    public double getRenderY(double alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
     /**
      * Finds the closest platform directly under the monkey.
      */
-    private Platform getPlatformUnderMonkey(Platform[] platforms) {
+    private Platform getPlatformUnderMonkey(PlatformIndex platforms) {
         Platform bestPlatform = null;
         double closestDY = Double.MAX_VALUE;
 
-        for (Platform p : platforms) {
-            Rectangle feet = new Rectangle(x, y + height, width, 1);
-            if (feet.intersects(p.getBoundingBox())) {
-                double dy = Math.abs(p.getTopY() - (y + height));
-                if (dy < closestDY) {
-                    closestDY = dy;
-                    bestPlatform = p;
-                }
+        int count = platforms.query(x, y + height, x + width, y + height + 1);
+        for (int i = 0; i < count; i++) {
+            Platform p = platforms.getResult(i);
+            double dy = Math.abs(p.getTopY() - (y + height));
+            if (dy < closestDY) {
+                closestDY = dy;
+                bestPlatform = p;
             }
         }
         return bestPlatform;
     }
 
+    /**
+     * Returns whether the monkey is walking right.
+     */
+    public boolean isMovingRight() {
+        return movingRight;
+    }
+
+    /**
+     * Shows the monkey as the network host last sent it, on a client that does not simulate.
+     */
+    public void applyNetState(double newX, double newY, boolean newDead, boolean newMovingRight) {
+        savePosition();
+        x = newX;
+        y = newY;
+        dead = newDead;
+        movingRight = newMovingRight;
+        updateBounds();
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #saveState(ByteBuffer)}.
+     */
+    public int getStateBytes() {
+        return 6 * Double.BYTES + Integer.BYTES + 3;
+    }
+
+    /**
+     * Writes the monkey's changing state, including its place on its route, into a snapshot.
+     */
+    public void saveState(ByteBuffer out) {
+        out.putDouble(x).putDouble(y).putDouble(prevX).putDouble(prevY).putDouble(velocityY)
+                .putDouble(distanceMovedInCurrentSegment);
+        out.putInt(currentRouteIndex);
+        GameSnapshot.putBoolean(out, landed);
+        GameSnapshot.putBoolean(out, dead);
+        GameSnapshot.putBoolean(out, movingRight);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(ByteBuffer)}.
+     */
+    public void restoreState(ByteBuffer in) {
+        x = in.getDouble();
+        y = in.getDouble();
+        prevX = in.getDouble();
+        prevY = in.getDouble();
+        velocityY = in.getDouble();
+        distanceMovedInCurrentSegment = in.getDouble();
+        currentRouteIndex = in.getInt();
+        landed = GameSnapshot.getBoolean(in);
+        dead = GameSnapshot.getBoolean(in);
+        movingRight = GameSnapshot.getBoolean(in);
+        updateBounds();
+    }
+
 
 }
@@ -0,0 +1,331 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * The remote player's side of the network mode (see {@link NetServer}). Every tick the player
+ * sends its buttons along with every earlier input the host has not confirmed, so a lost packet
+ * costs nothing as long as a later one arrives, and decodes the newest state packets into a
+ * view of the level that can be shown on a local copy with {@link #applyTo(GameWorld)}.
+ *
+ * Each update is a delta against a baseline the host knows this player holds: the all-zero
+ * view, or the view as of an update the player acknowledged. The player keeps its recent
+ * updates, so whichever of them the host moves the baseline to can be replayed onto its own.
+ */
+public class NetClient implements AutoCloseable {
+    /** Most inputs sent in one packet: every input the host has not confirmed, up to this many. */
+    public static final int REDUNDANCY = 32;
+
+    // Updates kept, matching how far back the host can acknowledge
+    private static final int HISTORY = 32;
+
+    private final DatagramChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(NetServer.MAX_PACKET_BYTES);
+    private final ByteBuffer out = ByteBuffer.allocate(2 + 1 + 2 * Integer.BYTES + 1 + REDUNDANCY);
+    private final DeltaCodec.BitReader reader = new DeltaCodec.BitReader();
+    private final DeltaCodec.Update[] history = new DeltaCodec.Update[HISTORY];
+    private final int[] chain = new int[HISTORY];
+    private final byte[] inputs = new byte[REDUNDANCY * 2];
+
+    private int level = 0;
+    private int[] baseline = new int[0];
+    private int baselineTick = -1;
+    private int[] view = new int[0];
+    private int overlayTick = -1; // The update the view holds on top of the baseline, or -1 for none
+    private int lastTick = -1;
+    private int newestInput = -1;
+    private int confirmedInput = -1;
+    private long packetsReceived = 0;
+    private long bytesReceived = 0;
+    private long undecodable = 0;
+    private SplittableRandom loss;
+    private double lossRate;
+
+    /**
+     * Opens a socket to the host.
+     *
+     * @param host The host's name or address.
+     * @param port The host's UDP port.
+     */
+    public NetClient(String host, int port) {
+        for (int i = 0; i < HISTORY; i++) {
+            history[i] = new DeltaCodec.Update(NetServer.MAX_PACKET_BYTES);
+        }
+        try {
+            this.channel = DatagramChannel.open();
+            channel.connect(new InetSocketAddress(host, port));
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reach network host " + host + ":" + port, e);
+        }
+    }
+
+    /**
+     * Entry point for a headless remote player that presses random buttons and reports the traffic.
+     *
+     * @param args Optional host (default from app.properties), port and number of seconds (default 30).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        String host = args.length > 0 ? args[0] : gameProps.getProperty("net.host", "127.0.0.1");
+        int port = args.length > 1 ? Integer.parseInt(args[1])
+                : Integer.parseInt(gameProps.getProperty("net.port", "47000"));
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        try (NetClient client = new NetClient(host, port)) {
+            SplittableRandom random = new SplittableRandom(1);
+            long tickNanos = 1_000_000_000L / GameWorld.TICKS_PER_SECOND;
+            long next = System.nanoTime();
+            int buttons = Controls.NONE;
+            for (int t = 0; t < seconds * GameWorld.TICKS_PER_SECOND; t++) {
+                if (t % 30 == 0) {
+                    buttons = random.nextInt(Controls.JUMP);
+                }
+                client.tick(buttons);
+                if (t % (GameWorld.TICKS_PER_SECOND * 5) == 0) {
+                    System.out.println(client.describe());
+                }
+                next += tickNanos;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) {
+                    Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+                }
+            }
+            System.out.println(client.describe());
+        }
+    }
+
+    /**
+     * Sends this tick's buttons, then reads every state packet that has arrived.
+     *
+     * @param controls The player's buttons, as {@link Controls} flags.
+     */
+    public void tick(int controls) {
+        newestInput++;
+        inputs[Math.floorMod(newestInput, inputs.length)] = (byte) controls;
+        sendInput();
+        try {
+            while (true) {
+                in.clear();
+                if (channel.receive(in) == null) {
+                    break;
+                }
+                in.flip();
+                if (loss != null && loss.nextDouble() < lossRate) {
+                    continue;
+                }
+                packetsReceived++;
+                bytesReceived += in.remaining();
+                readState();
+            }
+        } catch (PortUnreachableException e) {
+            // Nothing listening on the host's port yet; keep sending until it is
+        } catch (IOException e) {
+            throw new UncheckedIOException("Network player could not receive", e);
+        }
+    }
+
+    /**
+     * Shows the newest state on a local copy of the level, if it is of that level.
+     *
+     * @param world A world built from the same level configuration as the host's.
+     * @return {@code true} if the state was applied, {@code false} if none has arrived for this level.
+     */
+    public boolean applyTo(GameWorld world) {
+        if (lastTick < 0 || level != world.getCurrentLevel() || view.length != NetState.size(world)) {
+            return false;
+        }
+        NetState.apply(view, world);
+        return true;
+    }
+
+    // Buttons the host has not confirmed, oldest first
+    private void sendInput() {
+        int count = Math.min(newestInput - confirmedInput, REDUNDANCY);
+        out.clear();
+        out.putShort(NetServer.MAGIC).put(NetServer.INPUT_PACKET).putInt(lastTick).putInt(newestInput)
+                .put((byte) count);
+        for (int seq = newestInput - count + 1; seq <= newestInput; seq++) {
+            out.put(inputs[Math.floorMod(seq, inputs.length)]);
+        }
+        out.flip();
+        try {
+            channel.write(out);
+        } catch (PortUnreachableException e) {
+            // Host not up yet; the inputs go out again with the next packet
+        } catch (IOException e) {
+            throw new UncheckedIOException("Network player could not send", e);
+        }
+    }
+
+    private void readState() {
+        if (in.remaining() < NetServer.STATE_HEADER_BYTES || in.getShort() != NetServer.MAGIC
+                || in.get() != NetServer.STATE_PACKET) {
+            return;
+        }
+        int packetLevel = in.getInt();
+        int size = in.getInt();
+        int tick = in.getInt();
+        int baseTick = in.getInt();
+        confirmedInput = Math.max(confirmedInput, in.getInt());
+        if (tick <= lastTick) {
+            return; // Late or duplicated; host ticks keep counting across levels
+        }
+
+        // 1) A new level starts from nothing
+        if (packetLevel != level || size != view.length) {
+            if (baseTick != -1) {
+                undecodable++;
+                return;
+            }
+            level = packetLevel;
+            baseline = new int[size];
+            view = new int[size];
+            baselineTick = -1;
+            overlayTick = -1;
+        }
+
+        // 2) Bring the baseline, and the view with it, to the one the host used
+        if (!moveBaseline(baseTick)) {
+            undecodable++;
+            return;
+        }
+
+        // 3) The view is the baseline plus this update alone; updates never acknowledged are
+        // dropped with it, as the host will not resend an entity that changes back to its baseline
+        DeltaCodec.Update update = history[Math.floorMod(tick, HISTORY)];
+        reader.begin(in);
+        try {
+            DeltaCodec.decode(reader, baseline, baseTick, tick, update);
+        } catch (IllegalArgumentException e) {
+            undecodable++;
+            return;
+        }
+        update.applyTo(view);
+        overlayTick = tick;
+        lastTick = tick;
+    }
+
+    // Replays acknowledged updates onto the baseline until it is the view of the given tick,
+    // leaving the view equal to the new baseline
+    private boolean moveBaseline(int target) {
+        if (target == -1) {
+            Arrays.fill(baseline, 0);
+            Arrays.fill(view, 0);
+            baselineTick = -1;
+            overlayTick = -1;
+            return true;
+        }
+        // Follow the target's baselines back to the current one
+        int steps = 0;
+        int tick = target;
+        while (tick != baselineTick) {
+            DeltaCodec.Update update = history[Math.floorMod(tick, HISTORY)];
+            if (tick < baselineTick || update.getTick() != tick || steps == chain.length) {
+                return false;
+            }
+            chain[steps++] = tick;
+            tick = update.getBaseline();
+        }
+        // Take the newest update off the view, then apply the chain to both in order
+        if (overlayTick >= 0) {
+            history[Math.floorMod(overlayTick, HISTORY)].revert(view, baseline);
+            overlayTick = -1;
+        }
+        for (int k = steps - 1; k >= 0; k--) {
+            DeltaCodec.Update update = history[Math.floorMod(chain[k], HISTORY)];
+            update.applyTo(baseline);
+            update.applyTo(view);
+        }
+        baselineTick = target;
+        return true;
+    }
+
+    /**
+     * Drops a share of the packets received, to test the protocol over loopback.
+     *
+     * @param rate Share of packets to drop, from 0 to 1.
+     * @param seed Seed for choosing which.
+     */
+    public void simulateLoss(double rate, long seed) {
+        this.lossRate = rate;
+        this.loss = rate > 0 ? new SplittableRandom(seed) : null;
+    }
+
+    /**
+     * Checks whether the newest state is of a level still being played,
+     * so a remote player knows which level to join.
+     */
+    public boolean isPlaying() {
+        return lastTick >= 0 && (view[3] & 3) == 0;
+    }
+
+    /**
+     * Returns the level of the newest state, or 0 if none has arrived.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the newest decoded view, for tests.
+     */
+    public int[] getView() {
+        return view;
+    }
+
+    /**
+     * Returns the host tick of the newest decoded view, or -1 if none.
+     */
+    public int getLastTick() {
+        return lastTick;
+    }
+
+    /**
+     * Returns the number of state packets received, including any that could not be decoded.
+     */
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    /**
+     * Returns the total bytes of state received.
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Returns how many state packets could not be decoded because their baseline was missing.
+     */
+    public long getUndecodable() {
+        return undecodable;
+    }
+
+    /**
+     * Summarises the state received so far.
+     */
+    public String describe() {
+        double perPacket = packetsReceived == 0 ? 0 : (double) bytesReceived / packetsReceived;
+        return "Level " + level + " tick " + lastTick + ": " + packetsReceived + " packets, "
+                + String.format("%.0f", perPacket) + " bytes each, " + undecodable + " undecodable";
+    }
+
+    /**
+     * Closes the socket.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close network client", e);
+        }
+    }
+}
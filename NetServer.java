@@ -0,0 +1,410 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * The host side of the network mode. The host runs the only simulation; every tick it sends
+ * each remote player one UDP packet with the entities that changed since the last view that
+ * player acknowledged, within a fixed byte budget (see {@link DeltaCodec}), and it takes
+ * the players' buttons from a redundant input stream. The game has a single Mario,
+ * so remote players share him with the host: their buttons are combined with the host's.
+ *
+ * Packets start with a magic number and a type. A state packet (host to player) carries
+ * the level, the view size, the tick, the baseline tick and the newest input received from
+ * that player, then the update. An input packet (player to host) carries the newest state
+ * tick the player decoded, the number of its newest input and up to
+ * {@link NetClient#REDUNDANCY} inputs, oldest first, that the host has not confirmed.
+ */
+public class NetServer implements AutoCloseable {
+    static final short MAGIC = 0x5344; // "SD"
+    static final byte STATE_PACKET = 1;
+    static final byte INPUT_PACKET = 2;
+    static final int STATE_HEADER_BYTES = 2 + 1 + 5 * Integer.BYTES;
+    static final int MAX_PACKET_BYTES = 1472; // Largest UDP payload in one Ethernet frame
+    static final int MIN_PACKET_BYTES = 256;
+
+    // Updates kept per player, so an acknowledgement up to this many ticks old can still be applied
+    private static final int HISTORY = 32;
+    // Inputs buffered per player; a player further ahead than MAX_INPUT_DELAY is caught up
+    private static final int INPUT_WINDOW = 64;
+    private static final int MAX_INPUT_DELAY = 4;
+    // Resend from an all-zero baseline if a player acknowledges nothing usable for this long
+    private static final int STALL_TICKS = GameWorld.TICKS_PER_SECOND * 2;
+    private static final long TIMEOUT_NANOS = 5_000_000_000L;
+    // Entities after the pinned ones captured and compared per player per tick
+    private static final int SCAN_LIMIT = 4096;
+    private static final int EDGE_BUTTONS = Controls.JUMP | Controls.SHOOT;
+
+    private final DatagramChannel channel;
+    private final int packetBytes;
+    private final ByteBuffer in = ByteBuffer.allocate(MAX_PACKET_BYTES);
+    private final ByteBuffer out;
+    private final DeltaCodec.BitWriter writer = new DeltaCodec.BitWriter();
+    private final Map<SocketAddress, Peer> peers = new LinkedHashMap<>();
+
+    private GameWorld world;
+    private int[] current = new int[0];
+    private int[] capturedAt = new int[0]; // Tick each entity of the view was last captured
+    private int tick = 0;
+    private int levelStart = 0; // Last tick of the previous level; older acknowledgements are ignored
+    private long bytesSent = 0;
+    private long packetsSent = 0;
+    private Random loss;
+    private double lossRate;
+
+    /**
+     * Opens the host's socket.
+     *
+     * @param port        UDP port to listen on, or 0 for any free port.
+     * @param packetBytes Most bytes of one state packet, from {@value #MIN_PACKET_BYTES} to
+     *                    {@value #MAX_PACKET_BYTES}.
+     */
+    public NetServer(int port, int packetBytes) {
+        if (packetBytes < MIN_PACKET_BYTES || packetBytes > MAX_PACKET_BYTES) {
+            throw new IllegalArgumentException("Packet size must be from " + MIN_PACKET_BYTES + " to "
+                    + MAX_PACKET_BYTES + " bytes: " + packetBytes);
+        }
+        this.packetBytes = packetBytes;
+        this.out = ByteBuffer.allocate(packetBytes);
+        try {
+            this.channel = DatagramChannel.open();
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open network host on port " + port, e);
+        }
+    }
+
+    /**
+     * Entry point for a headless host, for testing with remote players.
+     *
+     * @param args Optional port (default from app.properties) and level number or compiled
+     *             ".lvl" file (default 1).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        int port = args.length > 0 ? Integer.parseInt(args[0])
+                : Integer.parseInt(gameProps.getProperty("net.port", "47000"));
+        String levelArg = args.length > 1 ? args[1] : "1";
+        LevelConfig config = LevelFile.load(levelArg);
+        int packetBytes = Integer.parseInt(gameProps.getProperty("net.packetBytes", "1200"));
+
+        try (NetServer server = new NetServer(port, packetBytes)) {
+            GameWorld world = new GameWorld(config, 0);
+            server.beginLevel(world);
+            System.out.println("Hosting level " + config.getLevel() + " on UDP port " + server.getPort());
+            long tickNanos = 1_000_000_000L / GameWorld.TICKS_PER_SECOND;
+            long next = System.nanoTime();
+            boolean ended = false;
+            while (!ended) {
+                ended = world.tick(server.receive());
+                server.send();
+                if (world.getCurrFrame() % (GameWorld.TICKS_PER_SECOND * 5) == 0) {
+                    System.out.println(server.describe());
+                }
+                next += tickNanos;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) {
+                    Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+                }
+            }
+            System.out.println("Level over: won=" + world.hasWon() + ", score=" + world.getScore());
+        }
+    }
+
+    /**
+     * Starts sending a new level. Every player starts again from an all-zero baseline.
+     *
+     * @param levelWorld The authoritative world, ticked by the caller.
+     */
+    public void beginLevel(GameWorld levelWorld) {
+        this.world = levelWorld;
+        this.current = new int[NetState.size(levelWorld)];
+        this.capturedAt = new int[current.length / NetState.FIELDS];
+        this.levelStart = tick;
+        for (Peer peer : peers.values()) {
+            peer.reset(current.length);
+        }
+    }
+
+    /**
+     * Reads every waiting packet, then takes this tick's input from each player.
+     * Call it once per tick, before ticking the world.
+     *
+     * @return The players' buttons combined, as {@link Controls} flags.
+     */
+    public int receive() {
+        long now = System.nanoTime();
+        try {
+            SocketAddress from;
+            while (true) {
+                in.clear();
+                from = channel.receive(in);
+                if (from == null) {
+                    break;
+                }
+                in.flip();
+                if (dropped()) {
+                    continue;
+                }
+                readInput(from, now);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Network host could not receive", e);
+        }
+
+        int controls = Controls.NONE;
+        for (Iterator<Peer> it = peers.values().iterator(); it.hasNext(); ) {
+            Peer peer = it.next();
+            if (now - peer.lastHeard > TIMEOUT_NANOS) {
+                GameLog.info("Player at {} timed out", peer.address);
+                it.remove();
+            } else {
+                controls |= peer.nextInput();
+            }
+        }
+        return controls;
+    }
+
+    /**
+     * Sends this tick's state to every player. Call it once per tick, after ticking the world.
+     * Only the entities about to be sent are captured, so the cost does not grow with the level.
+     */
+    public void send() {
+        if (world == null) {
+            return;
+        }
+        tick++;
+        for (int e = 0; e < NetState.PINNED; e++) {
+            NetState.capture(world, current, e);
+        }
+        for (Peer peer : peers.values()) {
+            sendState(peer);
+        }
+    }
+
+    // Captures the entities the next update for a player may look at, unless another player's did
+    private void captureWindow(int cursor) {
+        int entities = capturedAt.length;
+        int e = Math.max(cursor, NetState.PINNED);
+        for (int scanned = 0; scanned < Math.min(entities - NetState.PINNED, SCAN_LIMIT); scanned++) {
+            if (e >= entities) {
+                e = NetState.PINNED;
+            }
+            if (capturedAt[e] != tick) {
+                NetState.capture(world, current, e);
+                capturedAt[e] = tick;
+            }
+            e++;
+        }
+    }
+
+    private void sendState(Peer peer) {
+        // 1) Fall back to an all-zero baseline if acknowledgements have stopped arriving
+        if (peer.ackedTick >= 0 && tick - peer.lastAdvance > STALL_TICKS) {
+            peer.reset(current.length);
+        }
+
+        // 2) Header, then as many changed entities as fit
+        out.clear();
+        out.putShort(MAGIC).put(STATE_PACKET).putInt(world.getCurrentLevel()).putInt(current.length)
+                .putInt(tick).putInt(peer.ackedTick).putInt(peer.newestInput);
+        writer.begin(out);
+        captureWindow(peer.cursor);
+        DeltaCodec.Update update = peer.history[tick % HISTORY];
+        peer.cursor = DeltaCodec.encode(current, peer.acked, peer.ackedTick, tick, peer.cursor, SCAN_LIMIT,
+                writer, update);
+        out.flip();
+
+        // 3) Send; a full socket buffer just loses the packet, like the network would
+        bytesSent += out.remaining();
+        packetsSent++;
+        if (dropped()) {
+            return;
+        }
+        try {
+            channel.send(out, peer.address);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Network host could not send to " + peer.address, e);
+        }
+    }
+
+    private void readInput(SocketAddress from, long now) {
+        if (in.remaining() < 2 + 1 + 2 * Integer.BYTES + 1 || in.getShort() != MAGIC || in.get() != INPUT_PACKET) {
+            return;
+        }
+        Peer peer = peers.get(from);
+        if (peer == null) {
+            peer = new Peer(from, packetBytes - STATE_HEADER_BYTES, current.length);
+            peers.put(from, peer);
+            GameLog.info("Player joined from {}", from);
+        }
+        peer.lastHeard = now;
+
+        // 1) Move the baseline to the acknowledged view if it was built on the current one
+        int ackTick = in.getInt();
+        if (ackTick > peer.ackedTick && ackTick > levelStart) {
+            DeltaCodec.Update acked = peer.history[Math.floorMod(ackTick, HISTORY)];
+            if (acked.getTick() == ackTick && acked.getBaseline() == peer.ackedTick) {
+                acked.applyTo(peer.acked);
+                peer.ackedTick = ackTick;
+                peer.lastAdvance = tick;
+            }
+        }
+
+        // 2) Keep the inputs not seen before
+        int newest = in.getInt();
+        int count = in.get() & 0xFF;
+        if (in.remaining() < count) {
+            return;
+        }
+        for (int k = 0; k < count; k++) {
+            int seq = newest - count + 1 + k;
+            byte buttons = in.get();
+            if (seq > peer.newestInput) {
+                peer.inputs[Math.floorMod(seq, INPUT_WINDOW)] = buttons;
+            }
+        }
+        peer.newestInput = Math.max(peer.newestInput, newest);
+    }
+
+    // Simulated packet loss, for loopback tests
+    private boolean dropped() {
+        return loss != null && loss.nextDouble() < lossRate;
+    }
+
+    /**
+     * Drops a share of the packets sent and received, to test the protocol over loopback.
+     *
+     * @param rate Share of packets to drop, from 0 to 1.
+     * @param seed Seed for choosing which.
+     */
+    public void simulateLoss(double rate, long seed) {
+        this.lossRate = rate;
+        this.loss = rate > 0 ? new Random(seed) : null;
+    }
+
+    /**
+     * Returns the UDP port the host is listening on.
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Network host socket is closed", e);
+        }
+    }
+
+    /**
+     * Returns the number of connected players.
+     */
+    public int getPlayerCount() {
+        return peers.size();
+    }
+
+    /**
+     * Returns the view as last captured, for tests; entities not sent lately may be out of date.
+     */
+    public int[] getCurrentView() {
+        return current;
+    }
+
+    /**
+     * Returns the total bytes of state sent, including packets lost on purpose.
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Returns the number of state packets sent, including packets lost on purpose.
+     */
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    /**
+     * Summarises the players and the traffic so far.
+     */
+    public String describe() {
+        List<String> players = new ArrayList<>();
+        for (Peer peer : peers.values()) {
+            players.add(peer.address + " acked " + peer.ackedTick + " input " + peer.newestInput);
+        }
+        double perPacket = packetsSent == 0 ? 0 : (double) bytesSent / packetsSent;
+        return "Tick " + tick + ": " + packetsSent + " packets, " + String.format("%.0f", perPacket)
+                + " bytes each, players " + players;
+    }
+
+    /**
+     * Closes the socket.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close network host", e);
+        }
+    }
+
+    /**
+     * What the host knows about one remote player.
+     */
+    private static class Peer {
+        final SocketAddress address;
+        final DeltaCodec.Update[] history = new DeltaCodec.Update[HISTORY];
+        final byte[] inputs = new byte[INPUT_WINDOW];
+        int[] acked;
+        int ackedTick;
+        int lastAdvance;
+        int cursor;
+        int newestInput = -1;
+        int nextInput = 0;
+        int held = Controls.NONE;
+        long lastHeard;
+
+        Peer(SocketAddress address, int budgetBytes, int viewSize) {
+            this.address = address;
+            for (int i = 0; i < HISTORY; i++) {
+                history[i] = new DeltaCodec.Update(budgetBytes);
+            }
+            reset(viewSize);
+        }
+
+        // Forgets every acknowledgement; the next update is against an all-zero view
+        void reset(int viewSize) {
+            if (acked == null || acked.length != viewSize) {
+                acked = new int[viewSize];
+            } else {
+                Arrays.fill(acked, 0);
+            }
+            ackedTick = -1;
+            cursor = NetState.PINNED;
+        }
+
+        // One input per tick; if none has arrived, hold the last direction without repeating jumps or shots
+        int nextInput() {
+            if (newestInput - nextInput > MAX_INPUT_DELAY) {
+                nextInput = newestInput - MAX_INPUT_DELAY;
+            }
+            if (nextInput > newestInput) {
+                return held & ~EDGE_BUTTONS;
+            }
+            held = inputs[Math.floorMod(nextInput, INPUT_WINDOW)];
+            nextInput++;
+            return held;
+        }
+    }
+}
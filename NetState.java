@@ -0,0 +1,272 @@
+import java.util.List;
+
+/**
+ * The network view of a {@link GameWorld}: what a remote player needs to draw the level,
+ * as a flat int array with {@link #FIELDS} quantized fields per entity. Positions are sent
+ * in eighths of a pixel, and anything a client does not draw (velocities, timers, pool
+ * statistics) is left out. Every level has a fixed layout:
+ *
+ * <pre>
+ * 0  globals   frame, score, final score, flags (game over, won, death cause)
+ * 1  Mario     x, y, flags from {@link Mario#getNetFlags()}, bullets
+ * 2  Donkey    y, health, asleep
+ * 3  pools     live bananas, live bullets
+ * then one entity per ladder (y, asleep), barrel (x, y, flags), hammer (collected),
+ * blaster (collected, ammo), monkey (x, y, dead and direction),
+ * banana slot (x, y, flags) and bullet slot (x, y, flags).
+ * </pre>
+ *
+ * A client applies a view to its own copy of the level, built from the same configuration,
+ * and draws that copy with the usual renderer.
+ */
+public final class NetState {
+    /** Fields per entity. */
+    public static final int FIELDS = 4;
+    /** Entities at the front of every view that change most ticks and are always sent first. */
+    public static final int PINNED = 4;
+
+    // Positions travel as whole eighths of a pixel
+    private static final double POSITION_SCALE = 8;
+    private static final DeathCause[] DEATH_CAUSES = DeathCause.values();
+
+    private NetState() {
+    }
+
+    /**
+     * Returns the number of ints in a view of the given world.
+     */
+    public static int size(GameWorld world) {
+        int entities = PINNED + world.getLadders().length + world.getBarrels().getCapacity()
+                + world.getHammers().size() + world.getBlasters().size() + world.getMonkeys().size()
+                + world.getBananas().getCapacity() + world.getBullets().getCapacity();
+        return entities * FIELDS;
+    }
+
+    /**
+     * Writes the world's current view.
+     *
+     * @param world The authoritative world.
+     * @param view  A view of {@link #size(GameWorld)} ints.
+     */
+    public static void capture(GameWorld world, int[] view) {
+        // 1) Pinned entities
+        int flags = (world.isGameOver() ? 1 : 0) | (world.hasWon() ? 2 : 0) | world.getDeathCause().ordinal() << 2;
+        put(view, 0, world.getCurrFrame(), world.getScore(), world.getFinalScore(), flags);
+        Mario mario = world.getMario();
+        put(view, 1, quantize(mario.getX()), quantize(mario.getY()), mario.getNetFlags(), mario.getBulletCount());
+        Donkey donkey = world.getDonkey();
+        put(view, 2, quantize(donkey.getY()), donkey.getHealth(), donkey.isAsleep() ? 1 : 0, 0);
+        put(view, 3, world.getBananas().size(), world.getBullets().size(), 0, 0);
+
+        // 2) Everything else, in layout order
+        int e = PINNED;
+        for (Ladder ladder : world.getLadders()) {
+            put(view, e++, quantize(ladder.getY()), ladder.isAsleep() ? 1 : 0, 0, 0);
+        }
+        e = captureBodies(world.getBarrels(), view, e);
+        List<Hammer> hammers = world.getHammers();
+        for (int i = 0; i < hammers.size(); i++) {
+            put(view, e++, hammers.get(i).isCollected() ? 1 : 0, 0, 0, 0);
+        }
+        List<Blaster> blasters = world.getBlasters();
+        for (int i = 0; i < blasters.size(); i++) {
+            Blaster blaster = blasters.get(i);
+            put(view, e++, blaster.isCollected() ? 1 : 0, blaster.getAmmo(), 0, 0);
+        }
+        List<Monkey> monkeys = world.getMonkeys();
+        for (int i = 0; i < monkeys.size(); i++) {
+            Monkey monkey = monkeys.get(i);
+            put(view, e++, quantize(monkey.getX()), quantize(monkey.getY()),
+                    (monkey.isDead() ? 1 : 0) | (monkey.isMovingRight() ? 2 : 0), 0);
+        }
+        e = captureBodies(world.getBananas(), view, e);
+        captureBodies(world.getBullets(), view, e);
+    }
+
+    /**
+     * Writes one entity of the world's current view, so a host can capture only the
+     * entities it is about to send.
+     *
+     * @param world  The authoritative world.
+     * @param view   A view of {@link #size(GameWorld)} ints.
+     * @param entity The entity's index in the layout.
+     */
+    public static void capture(GameWorld world, int[] view, int entity) {
+        // 1) Pinned entities
+        switch (entity) {
+            case 0 -> {
+                int flags = (world.isGameOver() ? 1 : 0) | (world.hasWon() ? 2 : 0)
+                        | world.getDeathCause().ordinal() << 2;
+                put(view, 0, world.getCurrFrame(), world.getScore(), world.getFinalScore(), flags);
+                return;
+            }
+            case 1 -> {
+                Mario mario = world.getMario();
+                put(view, 1, quantize(mario.getX()), quantize(mario.getY()), mario.getNetFlags(),
+                        mario.getBulletCount());
+                return;
+            }
+            case 2 -> {
+                Donkey donkey = world.getDonkey();
+                put(view, 2, quantize(donkey.getY()), donkey.getHealth(), donkey.isAsleep() ? 1 : 0, 0);
+                return;
+            }
+            case 3 -> {
+                put(view, 3, world.getBananas().size(), world.getBullets().size(), 0, 0);
+                return;
+            }
+            default -> {
+            }
+        }
+
+        // 2) Find the entity's section of the layout
+        int i = entity - PINNED;
+        Ladder[] ladders = world.getLadders();
+        if (i < ladders.length) {
+            put(view, entity, quantize(ladders[i].getY()), ladders[i].isAsleep() ? 1 : 0, 0, 0);
+            return;
+        }
+        i -= ladders.length;
+        if (i < world.getBarrels().getCapacity()) {
+            captureBody(world.getBarrels(), i, view, entity);
+            return;
+        }
+        i -= world.getBarrels().getCapacity();
+        List<Hammer> hammers = world.getHammers();
+        if (i < hammers.size()) {
+            put(view, entity, hammers.get(i).isCollected() ? 1 : 0, 0, 0, 0);
+            return;
+        }
+        i -= hammers.size();
+        List<Blaster> blasters = world.getBlasters();
+        if (i < blasters.size()) {
+            put(view, entity, blasters.get(i).isCollected() ? 1 : 0, blasters.get(i).getAmmo(), 0, 0);
+            return;
+        }
+        i -= blasters.size();
+        List<Monkey> monkeys = world.getMonkeys();
+        if (i < monkeys.size()) {
+            Monkey monkey = monkeys.get(i);
+            put(view, entity, quantize(monkey.getX()), quantize(monkey.getY()),
+                    (monkey.isDead() ? 1 : 0) | (monkey.isMovingRight() ? 2 : 0), 0);
+            return;
+        }
+        i -= monkeys.size();
+        if (i < world.getBananas().getCapacity()) {
+            captureBody(world.getBananas(), i, view, entity);
+            return;
+        }
+        captureBody(world.getBullets(), i - world.getBananas().getCapacity(), view, entity);
+    }
+
+    /**
+     * Shows a view on a client's copy of the level. Each object's old position becomes
+     * the start of the tick, so the renderer draws the move smoothly.
+     *
+     * @param view  A view received from the host.
+     * @param world A world built from the same level as the host's.
+     * @throws IllegalArgumentException if the view is of a differently shaped world.
+     */
+    public static void apply(int[] view, GameWorld world) {
+        if (view.length != size(world)) {
+            throw new IllegalArgumentException("View of " + view.length + " ints does not fit a world of "
+                    + size(world));
+        }
+        // 1) Pinned entities
+        int flags = view[3];
+        world.applyNetState(view[0], view[1], view[2], (flags & 1) != 0, (flags & 2) != 0,
+                DEATH_CAUSES[flags >> 2]);
+        world.getMario().applyNetState(dequantize(view[4]), dequantize(view[5]), view[6], view[7]);
+        world.getDonkey().applyNetState(dequantize(view[8]), view[9], view[10] != 0);
+        int bananaCount = view[12];
+        int bulletCount = view[13];
+
+        // 2) Everything else, in layout order
+        int at = PINNED * FIELDS;
+        for (Ladder ladder : world.getLadders()) {
+            ladder.applyNetState(dequantize(view[at]), view[at + 1] != 0);
+            at += FIELDS;
+        }
+        Barrels barrels = world.getBarrels();
+        at = applyBodies(view, at, barrels, barrels.getCapacity(), barrels.getCapacity());
+        List<Hammer> hammers = world.getHammers();
+        for (int i = 0; i < hammers.size(); i++) {
+            if (view[at] != 0 && !hammers.get(i).isCollected()) {
+                hammers.get(i).collect();
+            }
+            at += FIELDS;
+        }
+        List<Blaster> blasters = world.getBlasters();
+        for (int i = 0; i < blasters.size(); i++) {
+            Blaster blaster = blasters.get(i);
+            if (view[at] != 0 && !blaster.isCollected()) {
+                blaster.collect();
+            }
+            blaster.setBullets(view[at + 1]);
+            at += FIELDS;
+        }
+        List<Monkey> monkeys = world.getMonkeys();
+        for (int i = 0; i < monkeys.size(); i++) {
+            monkeys.get(i).applyNetState(dequantize(view[at]), dequantize(view[at + 1]),
+                    (view[at + 2] & 1) != 0, (view[at + 2] & 2) != 0);
+            at += FIELDS;
+        }
+        at = applyBodies(view, at, world.getBananas(), bananaCount, world.getBananas().getCapacity());
+        applyBodies(view, at, world.getBullets(), bulletCount, world.getBullets().getCapacity());
+    }
+
+    // Pool slots are packed, so slot i is a live body exactly when i < size()
+    private static int captureBodies(BodyStore bodies, int[] view, int e) {
+        int live = bodies.size();
+        for (int i = 0; i < live; i++) {
+            put(view, e + i, quantize(bodies.getX(i)), quantize(bodies.getY(i)), bodies.getFlags(i), 0);
+        }
+        // Free slots are all zero, so each is sent once when it empties and never again
+        for (int i = live; i < bodies.getCapacity(); i++) {
+            put(view, e + i, 0, 0, 0, 0);
+        }
+        return e + bodies.getCapacity();
+    }
+
+    private static void captureBody(BodyStore bodies, int i, int[] view, int entity) {
+        if (i < bodies.size()) {
+            put(view, entity, quantize(bodies.getX(i)), quantize(bodies.getY(i)), bodies.getFlags(i), 0);
+        } else {
+            put(view, entity, 0, 0, 0, 0);
+        }
+    }
+
+    // A slot that was empty on the client starts a new body, which must not be drawn sliding in
+    private static int applyBodies(int[] view, int at, BodyStore bodies, int live, int slots) {
+        int before = bodies.size();
+        bodies.setNetCount(live);
+        for (int i = 0; i < live; i++) {
+            int field = at + i * FIELDS;
+            bodies.applyNetBody(i, dequantize(view[field]), dequantize(view[field + 1]),
+                    (byte) view[field + 2], i < before);
+        }
+        return at + slots * FIELDS;
+    }
+
+    private static void put(int[] view, int entity, int a, int b, int c, int d) {
+        int at = entity * FIELDS;
+        view[at] = a;
+        view[at + 1] = b;
+        view[at + 2] = c;
+        view[at + 3] = d;
+    }
+
+    /**
+     * Converts a coordinate to whole eighths of a pixel.
+     */
+    public static int quantize(double position) {
+        return (int) Math.round(position * POSITION_SCALE);
+    }
+
+    /**
+     * Converts whole eighths of a pixel back to a coordinate.
+     */
+    public static double dequantize(int quantized) {
+        return quantized / POSITION_SCALE;
+    }
+}
@@ -7,12 +7,11 @@ public class NormalMonkey extends Monkey {
     private static final double NORMAL_MONKEY_SPEED = 0.5;
 
     /**
-     * Creates a normal monkey using the config string from app.properties.
-     * Format: x,y;direction;distance1,distance2,...
+     * Creates a normal monkey from its level configuration.
      *
-     * @param config Configuration entry for this monkey.
+     * @param config Starting position, direction and route for this monkey.
      */
-    public NormalMonkey(String config) {
+    public NormalMonkey(LevelConfig.MonkeyConfig config) {
         super(config, "res/normal_monkey_left.png", "res/normal_monkey_right.png");
     }
 
@@ -25,10 +24,10 @@ public class NormalMonkey extends Monkey {
     }
 
     /**
-     * Updates this monkey (gravity, movement, drawing).
+     * Updates this monkey (gravity, movement).
      */
     @Override
-    public void update(Platform[] platforms) {
+    public void update(PlatformIndex platforms) {
         super.update(platforms);
     }
 
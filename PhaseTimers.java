@@ -0,0 +1,110 @@
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Nanosecond timers around each phase of a frame, recorded into one {@link LatencyHistogram} per phase.
+ * Timing is off unless "profile.phases" is true in app.properties, and can be switched at any time
+ * (F3 in the game). While off, each timing point is a single branch.
+ * A phase is timed as the gap between two timing points:
+ * <pre>
+ * long t = PhaseTimers.start();
+ * ...
+ * t = PhaseTimers.lap(PhaseTimers.Phase.MONKEYS, t);
+ * </pre>
+ * The timers are not thread-safe; only the game thread (or a single runner thread) may use them.
+ */
+public final class PhaseTimers {
+
+    /**
+     * The timed phases: the numbered steps of {@link GameWorld#tick(int)}, the draw pass, and totals.
+     */
+    public enum Phase {
+        SAVE_POSITIONS, LADDERS, BARRELS, DONKEY, MONKEYS, BANANAS, BROADPHASE, HAZARDS, BULLETS,
+        MARIO, MONKEY_HITS, WIN_CHECK, TICK,
+        STATIC_LAYER, SPRITES, HUD, FRAME
+    }
+
+    // One frame at 60 frames per second
+    private static final long FRAME_BUDGET_NANOS = 16_666_667;
+
+    private static final Map<Phase, LatencyHistogram> HISTOGRAMS = new EnumMap<>(Phase.class);
+    private static boolean enabled = Boolean.parseBoolean(IOUtils.getPropertyOrDefault("profile.phases", "false"));
+
+    static {
+        for (Phase phase : Phase.values()) {
+            HISTOGRAMS.put(phase, new LatencyHistogram());
+        }
+    }
+
+    private PhaseTimers() {
+    }
+
+    /**
+     * Returns the first timing point of a run of phases, or 0 while timing is off.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since the previous timing point against a phase.
+     *
+     * @param phase The phase that just finished.
+     * @param since The previous timing point.
+     * @return The timing point for the next phase, or 0 while timing is off.
+     */
+    public static long lap(Phase phase, long since) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        // A lap started while timing was off has no valid start
+        if (since != 0) {
+            HISTOGRAMS.get(phase).record(now - since);
+        }
+        return now;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches timing on or off. Recorded durations are kept until {@link #reset()}.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Forgets every recorded duration.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Formats a table of every phase that recorded anything, in microseconds.
+     * Phases whose slowest run went over the 16.6 ms frame budget are marked with "!".
+     *
+     * @param title The first line, e.g. which level was measured.
+     * @return The table, one line per phase.
+     */
+    public static String report(String title) {
+        StringBuilder out = new StringBuilder(title).append('\n');
+        out.append(String.format("%-15s %9s %10s %10s %10s %10s%n", "phase", "count", "mean", "p50", "p99", "max"));
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = HISTOGRAMS.get(phase);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format("%-15s %9d %10.1f %10.1f %10.1f %10.1f%s%n", phase, histogram.getCount(),
+                    histogram.getMean() / 1e3, histogram.getPercentile(50) / 1e3,
+                    histogram.getPercentile(99) / 1e3, histogram.getMax() / 1e3,
+                    histogram.getMax() > FRAME_BUDGET_NANOS ? " !" : ""));
+        }
+        return out.toString();
+    }
+}
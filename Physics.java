@@ -44,4 +44,10 @@ public class Physics {
      * The maximum falling speed (terminal velocity) for Donkey Kong.
      */
     public static final double DONKEY_TERMINAL_VELOCITY = 5.0;
+
+    /**
+     * The number of ticks a landed body must rest without moving before it falls asleep
+     * and is skipped by the physics pass until woken.
+     */
+    public static final int SLEEP_TICKS = 10;
 }
\ No newline at end of file
@@ -1,14 +1,12 @@
-import bagel.*;
-import bagel.util.Rectangle;
-
 /**
  * Represents a stationary platform in the game.
  * Platforms provide surfaces for Mario to walk on and interact with.
  */
 public class Platform {
-    private final Image PLATFORM_IMAGE; // Image representing the platform
+    private static final String PLATFORM_IMAGE = "res/platform.png"; // Image representing the platform
     private final double X, Y;               // Position of the platform
     private final double WIDTH, HEIGHT; // Dimensions of the platform
+    private final Aabb BOUNDS = new Aabb();
 
     /**
      * Constructs a Platform using coordinates read from app.properties.
@@ -22,20 +20,21 @@ public class Platform {
      * @param y The y-coordinate of the platform (top-left corner).
      */
     public Platform(double x, double y) {
-        this.PLATFORM_IMAGE = new Image("res/platform.png");
         this.X = x;
         this.Y = y;
-        this.WIDTH = PLATFORM_IMAGE.getWidth();
-        this.HEIGHT = PLATFORM_IMAGE.getHeight();
+        this.WIDTH = Sprites.width(PLATFORM_IMAGE);
+        this.HEIGHT = Sprites.height(PLATFORM_IMAGE);
+        this.BOUNDS.setCentered(X, Y, WIDTH, HEIGHT);
     }
 
 
     /**
-     * Draws the platform on the screen.
+     * Gets the path of the platform's image.
+     *
+     * @return The image path used to draw the platform.
      */
-    public void draw() {
-        PLATFORM_IMAGE.draw(X, Y);
-//        drawBoundingBox(); // Uncomment for debugging
+    public String getImagePath() {
+        return PLATFORM_IMAGE;
     }
 
     /**
@@ -82,14 +81,9 @@ public class Platform {
      * Returns a center-based bounding box that aligns with how the platform is drawn.
      * This bounding box is used for collision detection.
      *
-     * @return A {@link Rectangle} representing the platform's bounding box.
+     * @return An {@link Aabb} representing the platform's bounding box.
      */
-    public Rectangle getBoundingBox() {
-        return new Rectangle(
-                X - (WIDTH / 2),
-                Y - (HEIGHT / 2),
-                WIDTH,
-                HEIGHT
-        );
+    public Aabb getBoundingBox() {
+        return BOUNDS;
     }
 }
@@ -0,0 +1,275 @@
+import java.util.Arrays;
+
+/**
+ * A static bounding volume hierarchy over the level's platforms.
+ * Platforms never move once a level is loaded, so the tree is built once and then
+ * answers overlap queries by visiting only the branches that touch the query box.
+ * Results are always reported in the order the platforms were given, so callers
+ * that stop at the first hit behave exactly as if they had scanned the array.
+ *
+ * The tree itself never changes after construction, but queries share a result buffer,
+ * so each world should own its index and query it from one thread.
+ */
+public class PlatformIndex {
+    private static final int LEAF_SIZE = 4;
+
+    private final Platform[] platforms;
+
+    // Platform bounds, indexed by platform
+    private final double[] minX, minY, maxX, maxY;
+
+    // Platform indices reordered so every leaf covers a contiguous range
+    private final int[] order;
+
+    // Tree nodes: a leaf covers order[start, start + count); an inner node has count 0
+    // and its children at start and start + 1
+    private final double[] nodeMinX, nodeMinY, nodeMaxX, nodeMaxY;
+    private final int[] nodeStart, nodeCount;
+    private int nodeTotal = 0;
+
+    private final int[] stack = new int[64];
+    private int[] results = new int[16];
+    private int resultCount = 0;
+    private double hitTime = Aabb.NO_HIT;
+
+    /**
+     * Builds the index over the given platforms.
+     *
+     * @param platforms The level's platforms; the array is not modified.
+     */
+    public PlatformIndex(Platform[] platforms) {
+        int n = platforms.length;
+        this.platforms = platforms;
+        this.minX = new double[n];
+        this.minY = new double[n];
+        this.maxX = new double[n];
+        this.maxY = new double[n];
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) {
+            Platform p = platforms[i];
+            minX[i] = p.getX() - p.getWidth() / 2;
+            minY[i] = p.getY() - p.getHeight() / 2;
+            maxX[i] = minX[i] + p.getWidth();
+            maxY[i] = minY[i] + p.getHeight();
+            order[i] = i;
+        }
+
+        int maxNodes = Math.max(1, 2 * n);
+        this.nodeMinX = new double[maxNodes];
+        this.nodeMinY = new double[maxNodes];
+        this.nodeMaxX = new double[maxNodes];
+        this.nodeMaxY = new double[maxNodes];
+        this.nodeStart = new int[maxNodes];
+        this.nodeCount = new int[maxNodes];
+
+        int root = nodeTotal++;
+        build(root, 0, n);
+    }
+
+    /**
+     * Returns the first platform (in level order) overlapping the given box.
+     *
+     * @param bounds The box to test.
+     * @return The overlapping platform, or {@code null} if there is none.
+     */
+    public Platform firstOverlapping(Aabb bounds) {
+        return firstOverlapping(bounds.left(), bounds.top(), bounds.right(), bounds.bottom());
+    }
+
+    /**
+     * Returns the first platform (in level order) overlapping the box with the given edges.
+     *
+     * @return The overlapping platform, or {@code null} if there is none.
+     */
+    public Platform firstOverlapping(double qMinX, double qMinY, double qMaxX, double qMaxY) {
+        int count = query(qMinX, qMinY, qMaxX, qMaxY);
+        return count == 0 ? null : platforms[results[0]];
+    }
+
+    /**
+     * Returns the platform a moving box hits first, so a box moving further in one tick
+     * than a platform is thick cannot pass through it. Platforms hit at the same moment
+     * are decided by level order. The moment of the hit is read back with {@link #getHitTime()}.
+     *
+     * @param qMinX Left edge of the box before the move.
+     * @param qMinY Top edge of the box before the move.
+     * @param qMaxX Right edge of the box before the move.
+     * @param qMaxY Bottom edge of the box before the move.
+     * @param dx    How far the box moves along x.
+     * @param dy    How far the box moves along y.
+     * @return The platform hit first, or {@code null} if the box hits none.
+     */
+    public Platform firstSwept(double qMinX, double qMinY, double qMaxX, double qMaxY, double dx, double dy) {
+        int count = query(Math.min(qMinX, qMinX + dx), Math.min(qMinY, qMinY + dy),
+                Math.max(qMaxX, qMaxX + dx), Math.max(qMaxY, qMaxY + dy));
+        hitTime = Aabb.NO_HIT;
+        int first = -1;
+        for (int k = 0; k < count; k++) {
+            int i = results[k];
+            double time = Aabb.timeOfImpact(qMinX, qMinY, qMaxX, qMaxY, dx, dy, minX[i], minY[i], maxX[i], maxY[i]);
+            if (time < hitTime) {
+                hitTime = time;
+                first = i;
+            }
+        }
+        return first < 0 ? null : platforms[first];
+    }
+
+    /**
+     * Returns the fraction of the move, from 0 to 1, after which the last {@link #firstSwept} hit,
+     * or {@link Aabb#NO_HIT} if it hit nothing.
+     */
+    public double getHitTime() {
+        return hitTime;
+    }
+
+    /**
+     * Checks whether any platform overlaps the given box.
+     *
+     * @param bounds The box to test.
+     * @return {@code true} if at least one platform overlaps it.
+     */
+    public boolean overlapsAny(Aabb bounds) {
+        return overlapsAny(bounds.left(), bounds.top(), bounds.right(), bounds.bottom());
+    }
+
+    /**
+     * Checks whether any platform overlaps the box with the given edges.
+     *
+     * @return {@code true} if at least one platform overlaps it.
+     */
+    public boolean overlapsAny(double qMinX, double qMinY, double qMaxX, double qMaxY) {
+        return query(qMinX, qMinY, qMaxX, qMaxY) > 0;
+    }
+
+    /**
+     * Finds every platform whose bounds overlap the given box.
+     * The platforms are read back in level order with {@link #getResult(int)}
+     * and stay valid until the next query.
+     *
+     * @return The number of overlapping platforms.
+     */
+    public int query(double qMinX, double qMinY, double qMaxX, double qMaxY) {
+        resultCount = 0;
+        if (platforms.length == 0) {
+            return 0;
+        }
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!Aabb.intersects(nodeMinX[node], nodeMinY[node], nodeMaxX[node], nodeMaxY[node],
+                    qMinX, qMinY, qMaxX, qMaxY)) {
+                continue;
+            }
+            int count = nodeCount[node];
+            if (count == 0) {
+                stack[top++] = nodeStart[node];
+                stack[top++] = nodeStart[node] + 1;
+                continue;
+            }
+            for (int k = nodeStart[node], end = nodeStart[node] + count; k < end; k++) {
+                int i = order[k];
+                if (Aabb.intersects(minX[i], minY[i], maxX[i], maxY[i], qMinX, qMinY, qMaxX, qMaxY)) {
+                    addResult(i);
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    /**
+     * Returns one platform found by the last query, in level order.
+     *
+     * @param index Position in the result list, below the count returned by the query.
+     */
+    public Platform getResult(int index) {
+        return platforms[results[index]];
+    }
+
+    // Insertion sort keeps the usually tiny result list in level order
+    private void addResult(int platform) {
+        if (resultCount == results.length) {
+            results = Arrays.copyOf(results, resultCount * 2);
+        }
+        int k = resultCount++;
+        while (k > 0 && results[k - 1] > platform) {
+            results[k] = results[k - 1];
+            k--;
+        }
+        results[k] = platform;
+    }
+
+    // Median split on the longer axis of the centres until leaves are small
+    private void build(int node, int start, int end) {
+        double bMinX = Double.MAX_VALUE, bMinY = Double.MAX_VALUE;
+        double bMaxX = -Double.MAX_VALUE, bMaxY = -Double.MAX_VALUE;
+        double cMinX = Double.MAX_VALUE, cMinY = Double.MAX_VALUE;
+        double cMaxX = -Double.MAX_VALUE, cMaxY = -Double.MAX_VALUE;
+        for (int k = start; k < end; k++) {
+            int i = order[k];
+            bMinX = Math.min(bMinX, minX[i]);
+            bMinY = Math.min(bMinY, minY[i]);
+            bMaxX = Math.max(bMaxX, maxX[i]);
+            bMaxY = Math.max(bMaxY, maxY[i]);
+            double cx = (minX[i] + maxX[i]) / 2;
+            double cy = (minY[i] + maxY[i]) / 2;
+            cMinX = Math.min(cMinX, cx);
+            cMinY = Math.min(cMinY, cy);
+            cMaxX = Math.max(cMaxX, cx);
+            cMaxY = Math.max(cMaxY, cy);
+        }
+        nodeMinX[node] = bMinX;
+        nodeMinY[node] = bMinY;
+        nodeMaxX[node] = bMaxX;
+        nodeMaxY[node] = bMaxY;
+
+        int count = end - start;
+        if (count <= LEAF_SIZE) {
+            nodeStart[node] = start;
+            nodeCount[node] = count;
+            return;
+        }
+
+        boolean splitX = (cMaxX - cMinX) >= (cMaxY - cMinY);
+        int mid = (start + end) >>> 1;
+        selectByCentre(start, end - 1, mid, splitX);
+
+        int left = nodeTotal;
+        nodeTotal += 2;
+        nodeStart[node] = left;
+        nodeCount[node] = 0;
+        build(left, start, mid);
+        build(left + 1, mid, end);
+    }
+
+    // Quickselect: partially orders order[lo..hi] so order[k] holds the median centre
+    private void selectByCentre(int lo, int hi, int k, boolean alongX) {
+        while (lo < hi) {
+            double pivot = centre(order[(lo + hi) >>> 1], alongX);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (centre(order[i], alongX) < pivot) i++;
+                while (centre(order[j], alongX) > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double centre(int platform, boolean alongX) {
+        return alongX ? (minX[platform] + maxX[platform]) : (minY[platform] + maxY[platform]);
+    }
+}
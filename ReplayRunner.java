@@ -0,0 +1,58 @@
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Replays a recorded play of a level without a window, as fast as the simulation runs.
+ * A replay reproduces the recorded play exactly, so it can be used to reproduce bug reports
+ * and as realistic load for profiling. Each replay is checked against the score and tick count
+ * the recording ended with.
+ */
+public class ReplayRunner {
+
+    /**
+     * Entry point for the replay runner.
+     *
+     * @param args Input log (".sdkr"), optional number of times to replay it (default 1),
+     *             and optional compiled ".lvl" file to use instead of res/app.properties.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: ReplayRunner <recording.sdkr> [repeats] [level.lvl]");
+            System.exit(2);
+        }
+        InputLog log = InputLog.read(Path.of(args[0]));
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        LevelConfig config;
+        if (args.length > 2) {
+            config = LevelFile.read(Path.of(args[2]));
+        } else {
+            Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+            config = LevelConfig.load(gameProps, log.getLevel());
+        }
+        System.out.println("Replaying level " + log.getLevel() + ": " + log.getTickCount()
+                + " ticks, starting score " + log.getStartingScore());
+
+        boolean matched = true;
+        for (int r = 1; r <= repeats; r++) {
+            GameWorld world = log.createWorld(config);
+            long start = System.nanoTime();
+            int ticks = log.replay(world);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            boolean same = ticks == log.getTickCount() && world.getScore() == log.getEndScore();
+            matched &= same;
+            System.out.println("Replay " + r + ": " + ticks + " ticks in "
+                    + String.format("%.3f", seconds) + "s ("
+                    + String.format("%.0f", ticks / seconds) + " ticks/s), won=" + world.hasWon()
+                    + ", score=" + world.getScore()
+                    + (same ? "" : " - DIVERGED, recording ended at tick " + log.getTickCount()
+                    + " with score " + log.getEndScore()));
+        }
+        if (PhaseTimers.isEnabled()) {
+            System.out.print(PhaseTimers.report("Phase timings over " + repeats + " replays (microseconds):"));
+        }
+        if (!matched) {
+            System.exit(1);
+        }
+    }
+}
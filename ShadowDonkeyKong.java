@@ -1,5 +1,8 @@
 import bagel.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The main class for the Shadow Donkey Kong game.
@@ -26,7 +29,24 @@ public class ShadowDonkeyKong extends AbstractGame {
     private GamePlayScreen level2;
     private GameEndScreen endScreen;
 
+    // Every sprite packed into one texture, built once at startup and shared by all levels
+    private final TextureAtlas atlas;
+    // Every level, parsed and validated once at startup; level N is at index N - 1
+    private final List<LevelConfig> levels;
+    // Levels being built in the background, ready for the next screen switch; level N is at index N - 1
+    private final LevelPreloader preloader;
+    private final List<CompletableFuture<LevelPreloader.PreparedLevel>> preloaded = new ArrayList<>();
 
+    // Fixed-timestep clock: the simulation always advances in ticks of this length
+    private static final double TICK_SECONDS = 1.0 / GameWorld.TICKS_PER_SECOND;
+    // Longest frame time counted, so a long hitch does not trigger a burst of catch-up ticks
+    private static final double MAX_FRAME_SECONDS = 0.25;
+    private long lastFrameNanos;
+    private double accumulator;
+
+    // Network mode from "net.mode": hosting remote players, playing on a remote host, or neither (null)
+    private final NetServer netHost;
+    private final NetClient netRemote;
 
     /**
      * Constructs a new instance of the ShadowDonkeyKong game.
@@ -48,7 +68,20 @@ public class ShadowDonkeyKong extends AbstractGame {
         screenWidth = Integer.parseInt(gameProps.getProperty("window.width"));
         screenHeight = Integer.parseInt(gameProps.getProperty("window.height"));
 
+        levels = LevelConfig.loadAll(gameProps);
+        atlas = new TextureAtlas("res");
+        preloader = new LevelPreloader(gameProps.getProperty("backgroundImage"));
+        preloadLevels();
         home= new HomeScreen(gameProps, messageProps);
+
+        String netMode = gameProps.getProperty("net.mode", "off");
+        int port = Integer.parseInt(gameProps.getProperty("net.port", "47000"));
+        netHost = netMode.equals("host")
+                ? new NetServer(port, Integer.parseInt(gameProps.getProperty("net.packetBytes", "1200")))
+                : null;
+        netRemote = netMode.equals("join")
+                ? new NetClient(gameProps.getProperty("net.host", "127.0.0.1"), port)
+                : null;
     }
 
 
@@ -60,48 +93,72 @@ public class ShadowDonkeyKong extends AbstractGame {
 
     @Override
     public void update(Input input) {
+        // F3 switches the per-phase timers on and off, reporting what they measured
+        if (input.wasPressed(Keys.F3)) {
+            if (PhaseTimers.isEnabled()) {
+                reportPhases();
+            }
+            PhaseTimers.setEnabled(!PhaseTimers.isEnabled());
+        }
+
         switch (state) {
             case HOME -> {
                 // Wait for user to select level
                 Integer levelChoice = home.update(input);
+                if (netRemote != null) {
+                    // A remote player joins whichever level the host is playing
+                    netRemote.tick(Controls.NONE);
+                    levelChoice = netRemote.isPlaying() ? netRemote.getLevel() : null;
+                }
                 if (levelChoice != null) {
                     if (levelChoice == 1) {
-                        level1 = new GamePlayScreen(gameProps, 1,0);
-                        state = GameState.LEVEL1;
+                        level1 = startLevel(1, 0);
+                        switchTo(GameState.LEVEL1);
                     } else if (levelChoice == 2) {
-                        level2 = new GamePlayScreen(gameProps, 2, 0);
-                        state = GameState.LEVEL2;
+                        level2 = startLevel(2, 0);
+                        switchTo(GameState.LEVEL2);
                     }
+                    // The next screen holds its assets now, so shared ones stay loaded
+                    home.dispose();
+                    home = null;
+                    resetClock();
                 }
             }
 
             case LEVEL1 -> {
                 // Update level 1 gameplay
-                boolean levelEnded = level1.update(input);
+                boolean levelEnded = play(level1, input);
 
                 if (levelEnded) {
+                    reportPhases();
                     if (level1.hasWon()) {
                         // Win: proceed to level 2
                         // Assumption: The score from Level 1 carries over to Level 2.
                         // This is required for consistent total scoring across both levels.
-                        level2 = new GamePlayScreen(gameProps, 2, level1.getScore());
-                        state = GameState.LEVEL2;
+                        level2 = startLevel(2, level1.getScore());
+                        switchTo(GameState.LEVEL2);
+                        resetClock();
                     } else {
                         // Lose: show fail screen
                         endScreen = new GameEndScreen(gameProps, messageProps, level1.getFinalScore(), false);
-                        state = GameState.END;
+                        switchTo(GameState.END);
                     }
+                    level1.dispose();
+                    level1 = null;
                 }
             }
 
             case LEVEL2 -> {
                 // Update level 2 gameplay
-                boolean levelEnded = level2.update(input);
+                boolean levelEnded = play(level2, input);
 
                 if (levelEnded) {
+                    reportPhases();
                     boolean playerWon = level2.hasWon();
                     endScreen = new GameEndScreen(gameProps, messageProps, level2.getFinalScore(), playerWon);
-                    state = GameState.END;
+                    switchTo(GameState.END);
+                    level2.dispose();
+                    level2 = null;
                 }
             }
 
@@ -109,7 +166,10 @@ public class ShadowDonkeyKong extends AbstractGame {
                 // Wait for SPACE to return to home screen
                 if (endScreen.update(input)) {
                     home = new HomeScreen(gameProps, messageProps);
-                    state = GameState.HOME;
+                    switchTo(GameState.HOME);
+                    preloadLevels();
+                    endScreen.dispose();
+                    endScreen = null;
                 }
             }
         }
@@ -117,6 +177,114 @@ public class ShadowDonkeyKong extends AbstractGame {
 
 
 
+    /**
+     * Runs as many fixed-length ticks as the time since the last frame allows (possibly none),
+     * then draws the level part-way between the last two ticks.
+     *
+     * @param level The level being played.
+     * @param input The current mouse/keyboard input.
+     * @return {@code true} if the level ended during this frame, {@code false} otherwise.
+     */
+    private boolean play(GamePlayScreen level, Input input) {
+        long frameStart = PhaseTimers.start();
+
+        // 1) Add the real time since the last frame to the accumulator
+        long now = System.nanoTime();
+        accumulator += Math.min((now - lastFrameNanos) / 1e9, MAX_FRAME_SECONDS);
+        lastFrameNanos = now;
+
+        // 2) Spend it in whole ticks
+        level.readInput(input);
+        boolean ended = false;
+        while (accumulator >= TICK_SECONDS && !ended) {
+            ended = level.tick();
+            accumulator -= TICK_SECONDS;
+        }
+
+        // 3) Draw the fraction of a tick that is left over
+        level.render(ended ? 1 : accumulator / TICK_SECONDS);
+        PhaseTimers.lap(PhaseTimers.Phase.FRAME, frameStart);
+        return ended;
+    }
+
+    /**
+     * Prints what the phase timers measured on the current level, then clears them.
+     * Does nothing while the timers are off.
+     */
+    private void reportPhases() {
+        if (!PhaseTimers.isEnabled()) {
+            return;
+        }
+        String where = switch (state) {
+            case LEVEL1 -> "level 1";
+            case LEVEL2 -> "level 2";
+            default -> "menus";
+        };
+        System.out.print(PhaseTimers.report("Phase timings on " + where + " (microseconds):"));
+        PhaseTimers.reset();
+    }
+
+    /**
+     * Starts building, in the background, every level that is not already built or being built.
+     * Each level is built once per visit to the home screen and handed over by {@link #startLevel}.
+     */
+    private void preloadLevels() {
+        for (int i = 0; i < levels.size(); i++) {
+            if (i == preloaded.size()) {
+                preloaded.add(null);
+            }
+            if (preloaded.get(i) == null) {
+                preloaded.set(i, preloader.preload(levels.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Takes a preloaded level and shows it, waiting only if it is still being built.
+     *
+     * @param level         The level number (e.g. 1 or 2).
+     * @param startingScore Score carried over from the previous level.
+     * @return The gameplay screen for the level.
+     */
+    private GamePlayScreen startLevel(int level, int startingScore) {
+        GameEvents.LevelLoad event = new GameEvents.LevelLoad();
+        event.begin();
+        CompletableFuture<LevelPreloader.PreparedLevel> build = preloaded.set(level - 1, null);
+        event.waitedForBuild = !build.isDone();
+        LevelPreloader.PreparedLevel prepared = build.join();
+        prepared.world().carryOverScore(startingScore);
+        GamePlayScreen screen = new GamePlayScreen(gameProps, prepared, atlas);
+        if (netHost != null) {
+            screen.hostOn(netHost);
+        } else if (netRemote != null) {
+            screen.joinTo(netRemote);
+        }
+        event.level = level;
+        event.commit();
+        return screen;
+    }
+
+    /**
+     * Moves to another screen, reporting the transition to Flight Recorder.
+     */
+    private void switchTo(GameState next) {
+        GameEvents.ScreenTransition event = new GameEvents.ScreenTransition();
+        if (event.shouldCommit()) {
+            event.from = state.name();
+            event.to = next.name();
+            event.commit();
+        }
+        state = next;
+    }
+
+    /**
+     * Restarts the clock when a level starts, so loading time is not simulated.
+     */
+    private void resetClock() {
+        lastFrameNanos = System.nanoTime();
+        accumulator = 0;
+    }
+
     /**
      * Retrieves the width of the game screen.
      *
@@ -0,0 +1,185 @@
+import java.util.Arrays;
+
+/**
+ * A uniform spatial hash grid used as the collision broadphase.
+ * Items are inserted by integer id with their bounding box and stored in every cell the box covers.
+ * A query returns each item sharing at least one cell with the query box exactly once,
+ * so only nearby pairs need the exact intersection test.
+ * The grid is meant to be cleared and refilled every tick; its arrays are reused,
+ * so it stops allocating once it has grown to the level's size.
+ */
+public class SpatialHashGrid {
+    private static final int EMPTY = -1;
+
+    private final double cellSize;
+
+    // Open-addressed table from cell key to the first entry in that cell
+    private long[] slotKeys;
+    private int[] slotHeads;
+    private int[] usedSlots;
+    private int usedCount = 0;
+
+    // One entry per (item, cell) pair, chained per cell
+    private int[] entryItems;
+    private int[] entryNext;
+    private long[] entryKeys;
+    private int entryCount = 0;
+
+    // Query results, de-duplicated with a per-item stamp
+    private int[] stamps = new int[64];
+    private int queryStamp = 0;
+    private int[] results = new int[64];
+    private int resultCount = 0;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param cellSize The width and height of one cell, ideally about the size of the largest object.
+     */
+    public SpatialHashGrid(double cellSize) {
+        this.cellSize = cellSize;
+        this.slotKeys = new long[256];
+        this.slotHeads = new int[256];
+        this.usedSlots = new int[256];
+        Arrays.fill(slotHeads, EMPTY);
+        this.entryItems = new int[256];
+        this.entryNext = new int[256];
+        this.entryKeys = new long[256];
+    }
+
+    /**
+     * Removes every item while keeping the allocated storage.
+     */
+    public void clear() {
+        for (int i = 0; i < usedCount; i++) {
+            slotHeads[usedSlots[i]] = EMPTY;
+        }
+        usedCount = 0;
+        entryCount = 0;
+    }
+
+    /**
+     * Inserts an item into every cell its bounding box covers.
+     *
+     * @param id   A non-negative id chosen by the caller.
+     * @param minX Left edge of the item.
+     * @param minY Top edge of the item.
+     * @param maxX Right edge of the item.
+     * @param maxY Bottom edge of the item.
+     */
+    public void insert(int id, double minX, double minY, double maxX, double maxY) {
+        if (id >= stamps.length) {
+            stamps = Arrays.copyOf(stamps, Math.max(id + 1, stamps.length * 2));
+        }
+        int cx0 = cell(minX), cy0 = cell(minY);
+        int cx1 = cell(maxX), cy1 = cell(maxY);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                addEntry(id, key(cx, cy));
+            }
+        }
+    }
+
+    /**
+     * Finds every item sharing a cell with the given box.
+     * The ids are read back with {@link #getResult(int)} and stay valid until the next query.
+     *
+     * @return The number of candidate items found.
+     */
+    public int query(double minX, double minY, double maxX, double maxY) {
+        resultCount = 0;
+        if (++queryStamp == 0) {
+            Arrays.fill(stamps, 0);
+            queryStamp = 1;
+        }
+        int cx0 = cell(minX), cy0 = cell(minY);
+        int cx1 = cell(maxX), cy1 = cell(maxY);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int slot = findSlot(key(cx, cy));
+                for (int e = slotHeads[slot]; e != EMPTY; e = entryNext[e]) {
+                    int id = entryItems[e];
+                    if (stamps[id] != queryStamp) {
+                        stamps[id] = queryStamp;
+                        if (resultCount == results.length) {
+                            results = Arrays.copyOf(results, resultCount * 2);
+                        }
+                        results[resultCount++] = id;
+                    }
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    /**
+     * Returns one id found by the last query.
+     *
+     * @param index Position in the result list, below the count returned by the query.
+     */
+    public int getResult(int index) {
+        return results[index];
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) ^ (cy & 0xFFFFFFFFL);
+    }
+
+    private void addEntry(int id, long key) {
+        if (entryCount == entryItems.length) {
+            int capacity = entryCount * 2;
+            entryItems = Arrays.copyOf(entryItems, capacity);
+            entryNext = Arrays.copyOf(entryNext, capacity);
+            entryKeys = Arrays.copyOf(entryKeys, capacity);
+        }
+        // Keep the table at most half full so probe chains stay short
+        if ((usedCount + 1) * 2 > slotHeads.length) {
+            growTable();
+        }
+        int slot = findSlot(key);
+        if (slotHeads[slot] == EMPTY) {
+            slotKeys[slot] = key;
+            usedSlots[usedCount++] = slot;
+        }
+        int e = entryCount++;
+        entryItems[e] = id;
+        entryKeys[e] = key;
+        entryNext[e] = slotHeads[slot];
+        slotHeads[slot] = e;
+    }
+
+    // Linear probing: returns the slot holding the key, or the empty slot where it belongs
+    private int findSlot(long key) {
+        int mask = slotHeads.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (slotHeads[slot] != EMPTY && slotKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growTable() {
+        int capacity = slotHeads.length * 2;
+        slotKeys = new long[capacity];
+        slotHeads = new int[capacity];
+        usedSlots = new int[capacity];
+        Arrays.fill(slotHeads, EMPTY);
+        usedCount = 0;
+
+        // Relink the existing entries into the larger table
+        for (int e = 0; e < entryCount; e++) {
+            int slot = findSlot(entryKeys[e]);
+            if (slotHeads[slot] == EMPTY) {
+                slotKeys[slot] = entryKeys[e];
+                usedSlots[usedCount++] = slot;
+            }
+            entryNext[e] = slotHeads[slot];
+            slotHeads[slot] = e;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+/**
+ * Collects sprite draws from a {@link TextureAtlas} and submits them together.
+ * Draws are queued in primitive arrays during the frame and sent to the atlas in
+ * submission order by {@link #flush()}, so a whole layer of sprites goes out
+ * back to back on one texture with no allocation per sprite.
+ */
+public class SpriteBatch {
+    private final TextureAtlas atlas;
+
+    private int count = 0;
+    private int[] regions;
+    private double[] xs, ys;
+    private boolean[] fromTopLeft;
+    private int lastFlushCount = 0;
+
+    /**
+     * Creates an empty batch drawing from the given atlas.
+     *
+     * @param atlas           The atlas every queued region belongs to.
+     * @param initialCapacity Number of draws to allocate room for up front.
+     */
+    public SpriteBatch(TextureAtlas atlas, int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.atlas = atlas;
+        this.regions = new int[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.fromTopLeft = new boolean[capacity];
+    }
+
+    /**
+     * Queues a region drawn centred on (x, y).
+     */
+    public void add(int region, double x, double y) {
+        queue(region, x, y, false);
+    }
+
+    /**
+     * Queues a region drawn with its top-left corner at (x, y).
+     */
+    public void addFromTopLeft(int region, double x, double y) {
+        queue(region, x, y, true);
+    }
+
+    /**
+     * Draws every queued sprite in the order it was added and empties the batch.
+     */
+    public void flush() {
+        for (int i = 0; i < count; i++) {
+            atlas.draw(regions[i], xs[i], ys[i], fromTopLeft[i]);
+        }
+        lastFlushCount = count;
+        count = 0;
+    }
+
+    /**
+     * Returns the number of sprites drawn by the last {@link #flush()}.
+     */
+    public int getLastFlushCount() {
+        return lastFlushCount;
+    }
+
+    private void queue(int region, double x, double y, boolean topLeft) {
+        if (count == regions.length) {
+            int capacity = count * 2;
+            regions = Arrays.copyOf(regions, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            fromTopLeft = Arrays.copyOf(fromTopLeft, capacity);
+        }
+        regions[count] = region;
+        xs[count] = x;
+        ys[count] = y;
+        fromTopLeft[count] = topLeft;
+        count++;
+    }
+}
@@ -0,0 +1,66 @@
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides sprite dimensions without loading any textures.
+ * Only the image header is read, so the game logic can size its collision boxes
+ * on a machine with no window or GL context.
+ * Sizes are cached and read without locking, so any thread may ask; the game classes still
+ * read them once when they are built rather than every tick.
+ */
+public class Sprites {
+
+    private static final Map<String, double[]> SIZES = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the width of the sprite at the given path.
+     *
+     * @param path Path to the image file, e.g. "res/barrel.png".
+     * @return The width in pixels.
+     */
+    public static double width(String path) {
+        return size(path)[0];
+    }
+
+    /**
+     * Returns the height of the sprite at the given path.
+     *
+     * @param path Path to the image file, e.g. "res/barrel.png".
+     * @return The height in pixels.
+     */
+    public static double height(String path) {
+        return size(path)[1];
+    }
+
+    private static double[] size(String path) {
+        return SIZES.computeIfAbsent(path, Sprites::readSize);
+    }
+
+    // Some sprites are JPEG data despite the .png name, so let ImageIO pick the reader
+    private static double[] readSize(String path) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new File(path))) {
+            if (in == null) {
+                throw new IllegalArgumentException("Cannot open sprite: " + path);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported sprite format: " + path);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                return new double[] { reader.getWidth(0), reader.getHeight(0) };
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Cannot read sprite: " + path, ex);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+import bagel.Image;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.imageio.ImageIO;
+
+/**
+ * The parts of a level that never move, composited once into a single image.
+ * The background and every platform are drawn into one offscreen image when the level
+ * is prepared or first drawn. Each frame then draws the whole layer as one image instead of
+ * one draw per object.
+ * bagel has no offscreen render target, so the layer is composited with Java2D
+ * and loaded as an ordinary image. Compositing never needs the game thread: a level can be
+ * prepared on a loader thread.
+ *
+ * Ladders fall at the start of a level, so they can only join the layer once they have landed.
+ * The rebuild is composited in the background, but loading the new layer happens on the game
+ * thread mid-level and costs about a frame (a full-window image decode, 11-20 ms). That only
+ * pays off when it saves many ladder draws, so the layer is rebuilt only for levels with at least
+ * "render.bakeLaddersAt" ladders (64 by default); otherwise the ladders are always drawn on their own.
+ */
+public class StaticLayer {
+    // Fewest ladders worth a mid-level reload of the layer
+    private static final int BAKE_LADDERS_AT =
+            Integer.parseInt(IOUtils.getPropertyOrDefault("render.bakeLaddersAt", "64"));
+
+    // A composited layer written to disk, waiting to be loaded
+    private record Composite(String path, boolean hasLadders) {
+    }
+
+    // Where copies of one sprite go, as centre x,y pairs
+    private record Placements(String image, double[] centres) {
+    }
+
+    private final String backgroundPath;
+    // Source pixels for compositing, read once per path
+    private final Map<String, BufferedImage> pixels = new HashMap<>();
+
+    private String layerPath;
+    private Image layer;
+    private boolean hasLadders = false;
+    private CompletableFuture<Composite> pending;
+
+    /**
+     * Creates an empty layer; it is built by {@link #prepare(GameWorld)} or on the first draw.
+     *
+     * @param backgroundPath Path to the level's background image.
+     */
+    public StaticLayer(String backgroundPath) {
+        this.backgroundPath = backgroundPath;
+    }
+
+    /**
+     * Composites the layer now, on the calling thread, so the first draw only has to load it.
+     * Call it before the world starts ticking; it may be called from any thread.
+     *
+     * @param world The world whose static objects the layer shows.
+     */
+    public void prepare(GameWorld world) {
+        pending = CompletableFuture.completedFuture(compose(platforms(world), null));
+    }
+
+    /**
+     * Draws the layer, loading a newly composited one first if it is ready.
+     * Must be called from the game thread.
+     *
+     * @param world The world whose static objects the layer shows.
+     */
+    public void draw(GameWorld world) {
+        // 1) Swap in a finished composite; wait for it only if there is nothing to show yet
+        if (pending != null && (layer == null || pending.isDone())) {
+            load(pending.join());
+            pending = null;
+        }
+        if (layer == null) {
+            load(compose(platforms(world), null));
+        }
+
+        // 2) Once enough ladders have landed, rebuild with them in the background
+        if (!hasLadders && pending == null && world.getLadders().length >= BAKE_LADDERS_AT
+                && laddersSettled(world)) {
+            Placements platforms = platforms(world);
+            Placements ladders = ladders(world);
+            pending = CompletableFuture.supplyAsync(() -> compose(platforms, ladders));
+        }
+        layer.drawFromTopLeft(0, 0);
+    }
+
+    /**
+     * Checks whether the ladders are part of the layer, so they should not be drawn again.
+     */
+    public boolean hasLadders() {
+        return hasLadders;
+    }
+
+    /**
+     * Throws the layer away so it is rebuilt on the next draw, e.g. after the level is reloaded.
+     */
+    public void invalidate() {
+        release();
+        discardPending();
+        hasLadders = false;
+    }
+
+    /**
+     * Brings the layer back in line with a world restored from a snapshot: if the ladders were
+     * still falling then, a layer that already has them baked in is thrown away.
+     *
+     * @param world The restored world.
+     */
+    public void restored(GameWorld world) {
+        if ((hasLadders || pending != null) && !laddersSettled(world)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Releases the layer image. The layer must not be used afterwards.
+     */
+    public void dispose() {
+        invalidate();
+        synchronized (pixels) {
+            pixels.clear();
+        }
+    }
+
+    // Ladders fall at the start of a level, so they join the layer only once they have all gone to sleep
+    private static boolean laddersSettled(GameWorld world) {
+        for (Ladder ladder : world.getLadders()) {
+            if (!ladder.isAsleep()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Copied on the game thread, so compositing never reads the live world
+    private static Placements platforms(GameWorld world) {
+        Platform[] platforms = world.getPlatforms();
+        double[] centres = new double[platforms.length * 2];
+        for (int i = 0; i < platforms.length; i++) {
+            centres[2 * i] = platforms[i].getX();
+            centres[2 * i + 1] = platforms[i].getY();
+        }
+        return new Placements(platforms.length == 0 ? null : platforms[0].getImagePath(), centres);
+    }
+
+    private static Placements ladders(GameWorld world) {
+        Ladder[] ladders = world.getLadders();
+        double[] centres = new double[ladders.length * 2];
+        for (int i = 0; i < ladders.length; i++) {
+            centres[2 * i] = ladders[i].getX();
+            centres[2 * i + 1] = ladders[i].getY();
+        }
+        return new Placements(ladders.length == 0 ? null : ladders[0].getImagePath(), centres);
+    }
+
+    // Draws the layer with Java2D and writes it where bagel can load it; ladders may be null
+    private Composite compose(Placements platforms, Placements ladders) {
+        // 1) Background
+        BufferedImage background = pixels(backgroundPath);
+        BufferedImage sheet = new BufferedImage(background.getWidth(), background.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sheet.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(background, 0, 0, null);
+
+        // 2) Platforms
+        drawAll(g, platforms);
+
+        // 3) Ladders, once they have landed
+        if (ladders != null) {
+            drawAll(g, ladders);
+        }
+        g.dispose();
+        return new Composite(write(sheet), ladders != null);
+    }
+
+    private void drawAll(Graphics2D g, Placements placements) {
+        double[] centres = placements.centres();
+        if (centres.length == 0) {
+            return;
+        }
+        BufferedImage image = pixels(placements.image());
+        for (int i = 0; i < centres.length; i += 2) {
+            AffineTransform at = AffineTransform.getTranslateInstance(
+                    centres[i] - image.getWidth() / 2.0, centres[i + 1] - image.getHeight() / 2.0);
+            g.drawImage(image, at, null);
+        }
+    }
+
+    // Swaps a composited layer in for the current one
+    private void load(Composite composite) {
+        release();
+        layerPath = composite.path();
+        layer = Assets.acquireImage(layerPath);
+        hasLadders = composite.hasLadders();
+    }
+
+    private void release() {
+        if (layer != null) {
+            Assets.releaseImage(layerPath);
+            new File(layerPath).delete();
+            layer = null;
+            layerPath = null;
+        }
+    }
+
+    // Deletes the file of a composite that will never be loaded, whenever it finishes
+    private void discardPending() {
+        if (pending != null) {
+            pending.thenAccept(composite -> new File(composite.path()).delete());
+            pending = null;
+        }
+    }
+
+    private BufferedImage pixels(String path) {
+        synchronized (pixels) {
+            BufferedImage image = pixels.get(path);
+            if (image == null) {
+                try {
+                    image = ImageIO.read(new File(path));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read image " + path, e);
+                }
+                if (image == null) {
+                    throw new IllegalArgumentException("Unreadable image: " + path);
+                }
+                pixels.put(path, image);
+            }
+            return image;
+        }
+    }
+
+    private static String write(BufferedImage sheet) {
+        try {
+            File file = File.createTempFile("static-layer", ".png");
+            file.deleteOnExit();
+            ImageIO.write(sheet, "png", file);
+            return file.getAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the static layer", e);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates large, reproducible levels for benchmarks and soak tests.
+ * Platforms are laid out in rows as far apart as in the shipped levels, covering the whole world,
+ * with occasional gaps; the requested number of objects is then spread over the rows in fixed
+ * shares of ladders, barrels, monkeys, hammers and blasters, keeping hazards away from Mario's
+ * start. Everything random comes from the seed, so the same arguments always give the same level.
+ * A generated level passes the same validation as a shipped one and can be saved in the
+ * app.properties schema or as a compiled ".lvl" file.
+ */
+public final class StressLevelGenerator {
+    private static final String PLATFORM_IMAGE = "res/platform.png";
+
+    // Row layout, as in the shipped levels
+    private static final double ROW_SPACING = 130;
+    private static final double BOTTOM_ROW_MARGIN = 15;
+    private static final double TOP_ROW_MIN_Y = 120;
+    private static final double GAP_CHANCE = 0.2;
+
+    // Heights above a platform's centre at which each kind of object starts, as in the shipped levels
+    private static final double MARIO_ABOVE = 103;
+    private static final double DONKEY_ABOVE = 83;
+    private static final double LADDER_ABOVE = 80;
+    private static final double BARREL_ABOVE = 43;
+    private static final double MONKEY_ABOVE = 53;
+    private static final double PICKUP_ABOVE = 60;
+    private static final double MARIO_X = 200;
+    private static final double DONKEY_X = 60;
+    // Nothing that can hurt Mario starts this close to him, so a dense level is not over at once
+    private static final double MARIO_CLEARANCE = 600;
+
+    // Share of the generated objects of each kind; blasters get the rest
+    private static final double LADDER_SHARE = 0.10;
+    private static final double BARREL_SHARE = 0.35;
+    private static final double NORMAL_MONKEY_SHARE = 0.25;
+    private static final double INTELLIGENT_MONKEY_SHARE = 0.20;
+    private static final double HAMMER_SHARE = 0.05;
+
+    // Monkey routes: 1 to 4 walks of 100 to 400 pixels each
+    private static final int MAX_ROUTE_LENGTH = 4;
+    private static final int MIN_ROUTE_DISTANCE = 100;
+    private static final int MAX_ROUTE_DISTANCE = 400;
+
+    private StressLevelGenerator() {
+    }
+
+    /**
+     * Entry point for the generator.
+     *
+     * @param args Number of objects, then optionally the seed (default 1), world width (default 1024),
+     *             world height (default 768) and output file (default res/stress.lvl).
+     *             An output ending in ".properties" is written in the app.properties schema.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: StressLevelGenerator <objects> [seed] [width] [height]"
+                    + " [out.lvl|out.properties]");
+            System.exit(2);
+        }
+        int objects = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+        int height = args.length > 3 ? Integer.parseInt(args[3]) : 768;
+        Path out = Path.of(args.length > 4 ? args[4] : "res/stress.lvl");
+
+        LevelConfig level = generate(1, seed, objects, width, height, 10000);
+        if (out.toString().endsWith(".properties")) {
+            writeProperties(level, out);
+        } else {
+            LevelFile.write(level, out);
+        }
+        System.out.println("Generated " + objects + " objects on " + level.getPlatforms().size()
+                + " platforms (" + width + "x" + height + ", seed " + seed + ") to " + out);
+    }
+
+    /**
+     * Generates a level.
+     *
+     * @param level     The level number; it picks the level's keys when saved as properties.
+     * @param seed      Seed for every random choice.
+     * @param objects   Number of ladders, barrels, monkeys, hammers and blasters, not counting platforms.
+     * @param width     World width.
+     * @param height    World height.
+     * @param maxFrames Length of the level in ticks.
+     * @return The level.
+     * @throws IllegalArgumentException if the world is too small for one row of platforms
+     *                                  or the object count is negative.
+     */
+    public static LevelConfig generate(int level, long seed, int objects, int width, int height, int maxFrames) {
+        if (objects < 0) {
+            throw new IllegalArgumentException("Object count must not be negative: " + objects);
+        }
+        if (width < MARIO_X || height - BOTTOM_ROW_MARGIN < TOP_ROW_MIN_Y) {
+            throw new IllegalArgumentException("World too small for a row of platforms: " + width + "x" + height);
+        }
+        Random random = new Random(seed);
+
+        // 1) Rows of platforms, bottom first; only the bottom row is always solid
+        List<Double> rows = new ArrayList<>();
+        for (double y = height - BOTTOM_ROW_MARGIN; y >= TOP_ROW_MIN_Y; y -= ROW_SPACING) {
+            rows.add(y);
+        }
+        double platformWidth = Sprites.width(PLATFORM_IMAGE);
+        List<LevelConfig.Position> platforms = new ArrayList<>();
+        for (int row = 0; row < rows.size(); row++) {
+            for (double left = 0; left < width; left += platformWidth) {
+                if (row > 0 && random.nextDouble() < GAP_CHANCE) {
+                    continue;
+                }
+                double x = Math.min(left + platformWidth / 2, width);
+                platforms.add(new LevelConfig.Position(x, rows.get(row)));
+            }
+        }
+
+        // 2) Mario on the bottom row, Donkey on the top one
+        double bottom = rows.get(0);
+        double top = rows.get(rows.size() - 1);
+        LevelConfig.Position mario = new LevelConfig.Position(MARIO_X, bottom - MARIO_ABOVE);
+        LevelConfig.Position donkey = new LevelConfig.Position(DONKEY_X, Math.max(0, top - DONKEY_ABOVE));
+
+        // 3) Objects, each on a random row; a ladder climbs from its row to the one above
+        int ladderCount = (int) (objects * LADDER_SHARE);
+        int barrelCount = (int) (objects * BARREL_SHARE);
+        int normalCount = (int) (objects * NORMAL_MONKEY_SHARE);
+        int intelligentCount = (int) (objects * INTELLIGENT_MONKEY_SHARE);
+        int hammerCount = (int) (objects * HAMMER_SHARE);
+        int blasterCount = objects - ladderCount - barrelCount - normalCount - intelligentCount - hammerCount;
+
+        int ladderRows = Math.max(1, rows.size() - 1);
+        List<LevelConfig.Position> ladders = new ArrayList<>(ladderCount);
+        for (int i = 0; i < ladderCount; i++) {
+            double y = rows.get(random.nextInt(ladderRows)) - LADDER_ABOVE;
+            ladders.add(new LevelConfig.Position(randomX(random, width, false), y));
+        }
+        List<LevelConfig.Position> barrels = scatter(random, rows, width, barrelCount, BARREL_ABOVE, true);
+        List<LevelConfig.MonkeyConfig> normalMonkeys = monkeys(random, rows, width, normalCount);
+        List<LevelConfig.MonkeyConfig> intelligentMonkeys = monkeys(random, rows, width, intelligentCount);
+        List<LevelConfig.Position> hammers = scatter(random, rows, width, hammerCount, PICKUP_ABOVE, false);
+        List<LevelConfig.Position> blasters = scatter(random, rows, width, blasterCount, PICKUP_ABOVE, false);
+
+        return new LevelConfig(level, width, height, maxFrames, mario, donkey, platforms, ladders,
+                barrels, hammers, blasters, normalMonkeys, intelligentMonkeys);
+    }
+
+    /**
+     * Writes a level in the app.properties schema, with the window and frame limit settings
+     * it needs, so it can be loaded by {@link LevelConfig#load} or appended to a game's properties.
+     *
+     * @param level The level to write.
+     * @param file  Where to write it; any existing file is replaced.
+     */
+    public static void writeProperties(LevelConfig level, Path file) {
+        String n = ".level" + level.getLevel();
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            // 1) Window and level settings
+            line(out, "window.width", Integer.toString(level.getWidth()));
+            line(out, "window.height", Integer.toString(level.getHeight()));
+            line(out, "gamePlay.maxFrames", Integer.toString(level.getMaxFrames()));
+            line(out, "mario" + n, coords(level.getMario()));
+            line(out, "donkey" + n, coords(level.getDonkey()));
+
+            // 2) Platforms, all on one line
+            StringBuilder platforms = new StringBuilder();
+            for (LevelConfig.Position position : level.getPlatforms()) {
+                if (platforms.length() > 0) {
+                    platforms.append(';');
+                }
+                platforms.append(coords(position));
+            }
+            line(out, "platforms" + n, platforms.toString());
+
+            // 3) Counted lists
+            positions(out, "ladder" + n, level.getLadders());
+            positions(out, "barrel" + n, level.getBarrels());
+            positions(out, "hammer" + n, level.getHammers());
+            positions(out, "blaster" + n, level.getBlasters());
+            monkeys(out, "normalMonkey" + n, level.getNormalMonkeys());
+            monkeys(out, "intelligentMonkey" + n, level.getIntelligentMonkeys());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write level properties " + file, e);
+        }
+    }
+
+    private static List<LevelConfig.Position> scatter(Random random, List<Double> rows, int width,
+                                                      int count, double above, boolean hazard) {
+        List<LevelConfig.Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double y = rows.get(random.nextInt(rows.size())) - above;
+            positions.add(new LevelConfig.Position(randomX(random, width, hazard), y));
+        }
+        return positions;
+    }
+
+    private static List<LevelConfig.MonkeyConfig> monkeys(Random random, List<Double> rows, int width, int count) {
+        List<LevelConfig.MonkeyConfig> monkeys = new ArrayList<>(count);
+        for (LevelConfig.Position position : scatter(random, rows, width, count, MONKEY_ABOVE, true)) {
+            List<Integer> route = new ArrayList<>();
+            int length = 1 + random.nextInt(MAX_ROUTE_LENGTH);
+            for (int i = 0; i < length; i++) {
+                route.add(MIN_ROUTE_DISTANCE + random.nextInt(MAX_ROUTE_DISTANCE - MIN_ROUTE_DISTANCE + 1));
+            }
+            monkeys.add(new LevelConfig.MonkeyConfig(position, random.nextBoolean(), route));
+        }
+        return monkeys;
+    }
+
+    // Whole pixels, so a level saved as properties reads back exactly; hazards avoid Mario if the world allows
+    private static double randomX(Random random, int width, boolean hazard) {
+        boolean roomForHazards = width > MARIO_X + MARIO_CLEARANCE;
+        double x;
+        do {
+            x = random.nextInt(width + 1);
+        } while (hazard && roomForHazards && Math.abs(x - MARIO_X) < MARIO_CLEARANCE);
+        return x;
+    }
+
+    private static void positions(BufferedWriter out, String prefix, List<LevelConfig.Position> positions)
+            throws IOException {
+        line(out, prefix + ".count", Integer.toString(positions.size()));
+        for (int i = 0; i < positions.size(); i++) {
+            line(out, prefix + "." + (i + 1), coords(positions.get(i)));
+        }
+    }
+
+    // Format: x,y;direction;distance1,distance2,...
+    private static void monkeys(BufferedWriter out, String prefix, List<LevelConfig.MonkeyConfig> monkeys)
+            throws IOException {
+        line(out, prefix + ".count", Integer.toString(monkeys.size()));
+        for (int i = 0; i < monkeys.size(); i++) {
+            LevelConfig.MonkeyConfig monkey = monkeys.get(i);
+            StringBuilder route = new StringBuilder();
+            for (int distance : monkey.route()) {
+                if (route.length() > 0) {
+                    route.append(',');
+                }
+                route.append(distance);
+            }
+            line(out, prefix + "." + (i + 1), coords(monkey.position()) + ";"
+                    + (monkey.movingRight() ? "right" : "left") + ";" + route);
+        }
+    }
+
+    private static String coords(LevelConfig.Position position) {
+        return position.x() + "," + position.y();
+    }
+
+    private static void line(BufferedWriter out, String key, String value) throws IOException {
+        out.write(key);
+        out.write('=');
+        out.write(value);
+        out.newLine();
+    }
+}
@@ -0,0 +1,79 @@
+import bagel.Font;
+
+/**
+ * A piece of on-screen text whose string and measured width are cached.
+ * A label is either fixed text or a prefix followed by a number; the string is rebuilt
+ * and re-measured only when the number actually changes, so drawing an unchanged
+ * label every frame allocates nothing and never measures text.
+ */
+public class TextLabel {
+    private final Font font;
+    private final String prefix;
+
+    private String text;
+    private int value;
+    private double width = -1; // -1 until measured
+
+    /**
+     * Creates a label showing fixed text.
+     *
+     * @param font The font to draw with.
+     * @param text The text to show.
+     */
+    public TextLabel(Font font, String text) {
+        this.font = font;
+        this.prefix = text;
+        this.text = text;
+    }
+
+    /**
+     * Creates a label showing the prefix followed by a number.
+     *
+     * @param font   The font to draw with.
+     * @param prefix Text shown before the number.
+     * @param value  The number to show at first.
+     */
+    public TextLabel(Font font, String prefix, int value) {
+        this.font = font;
+        this.prefix = prefix;
+        this.value = value;
+        this.text = prefix + value;
+    }
+
+    /**
+     * Changes the number shown after the prefix. The text is only rebuilt if it differs.
+     *
+     * @param newValue The number to show.
+     */
+    public void setValue(int newValue) {
+        if (newValue != value) {
+            value = newValue;
+            text = prefix + newValue;
+            width = -1;
+        }
+    }
+
+    /**
+     * Returns the width of the current text, measuring it only after it has changed.
+     */
+    public double getWidth() {
+        if (width < 0) {
+            width = font.getWidth(text);
+        }
+        return width;
+    }
+
+    /**
+     * Draws the text with its baseline starting at (x, y).
+     */
+    public void draw(double x, double y) {
+        font.drawString(text, x, y);
+    }
+
+    /**
+     * Draws the text horizontally centred on centreX.
+     */
+    public void drawCentred(double centreX, double y) {
+        font.drawString(text, centreX - getWidth() / 2.0, y);
+    }
+}
@@ -0,0 +1,151 @@
+import bagel.DrawOptions;
+import bagel.Image;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * A single texture holding every sprite in the resource folder.
+ * At startup the sprites are packed onto shelves of one image, which is loaded once
+ * and drawn from by section, so every sprite draw uses the same texture.
+ * Images too large to be sprites (such as the background) are left out and
+ * are drawn from their own files as before.
+ */
+public class TextureAtlas {
+    private static final int ATLAS_WIDTH = 1024;
+    private static final int MAX_SPRITE_HEIGHT = 256;
+    // Empty pixels around each sprite so filtering never samples a neighbour
+    private static final int PADDING = 2;
+
+    private final String atlasPath;
+    private final Image atlas;
+    private final Map<String, Integer> regions = new HashMap<>();
+    private final DrawOptions[] sections;
+
+    /**
+     * Packs every sprite in the given folder into one atlas image and loads it.
+     *
+     * @param directory Folder holding the sprite images, as used in their paths (e.g. "res").
+     */
+    public TextureAtlas(String directory) {
+        // 1) Read every sprite small enough to share the atlas
+        File[] files = new File(directory).listFiles((dir, name) -> name.endsWith(".png"));
+        if (files == null) {
+            throw new IllegalArgumentException("Sprite folder not found: " + directory);
+        }
+        Arrays.sort(files);
+        List<String> paths = new ArrayList<>();
+        List<BufferedImage> sprites = new ArrayList<>();
+        for (File file : files) {
+            BufferedImage sprite = read(file);
+            if (sprite.getWidth() + 2 * PADDING <= ATLAS_WIDTH && sprite.getHeight() <= MAX_SPRITE_HEIGHT) {
+                paths.add(directory + "/" + file.getName());
+                sprites.add(sprite);
+            }
+        }
+
+        // 2) Place them on shelves, tallest first
+        Integer[] order = new Integer[sprites.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> sprites.get(b).getHeight() - sprites.get(a).getHeight());
+        int[] left = new int[sprites.size()];
+        int[] top = new int[sprites.size()];
+        int shelfX = 0, shelfY = 0, shelfHeight = 0;
+        for (int i : order) {
+            BufferedImage sprite = sprites.get(i);
+            int w = sprite.getWidth() + 2 * PADDING;
+            int h = sprite.getHeight() + 2 * PADDING;
+            if (shelfX + w > ATLAS_WIDTH) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            left[i] = shelfX + PADDING;
+            top[i] = shelfY + PADDING;
+            shelfX += w;
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+
+        // 3) Draw them into one image and save it where bagel can load it
+        BufferedImage sheet = new BufferedImage(ATLAS_WIDTH, Math.max(1, shelfY + shelfHeight),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sheet.createGraphics();
+        sections = new DrawOptions[sprites.size()];
+        for (int i = 0; i < sprites.size(); i++) {
+            BufferedImage sprite = sprites.get(i);
+            g.drawImage(sprite, left[i], top[i], null);
+            regions.put(paths.get(i), i);
+            sections[i] = new DrawOptions().setSection(left[i], top[i], sprite.getWidth(), sprite.getHeight());
+        }
+        g.dispose();
+        this.atlasPath = write(sheet);
+        this.atlas = Assets.acquireImage(atlasPath);
+    }
+
+    /**
+     * Returns the region holding the sprite at the given path, or -1 if it is not in the atlas.
+     */
+    public int findRegion(String path) {
+        Integer region = regions.get(path);
+        return region == null ? -1 : region;
+    }
+
+    /**
+     * Draws a region centred on (x, y), or with its top-left corner at (x, y).
+     */
+    public void draw(int region, double x, double y, boolean fromTopLeft) {
+        if (fromTopLeft) {
+            atlas.drawFromTopLeft(x, y, sections[region]);
+        } else {
+            atlas.draw(x, y, sections[region]);
+        }
+    }
+
+    /**
+     * Returns the number of sprites packed into the atlas.
+     */
+    public int getRegionCount() {
+        return sections.length;
+    }
+
+    /**
+     * Releases the atlas texture. The atlas must not be used afterwards.
+     */
+    public void dispose() {
+        Assets.releaseImage(atlasPath);
+        new File(atlasPath).delete();
+    }
+
+    private static BufferedImage read(File file) {
+        try {
+            BufferedImage image = ImageIO.read(file);
+            if (image == null) {
+                throw new IllegalArgumentException("Unreadable sprite: " + file);
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read sprite " + file, e);
+        }
+    }
+
+    private static String write(BufferedImage sheet) {
+        try {
+            File file = File.createTempFile("sprite-atlas", ".png");
+            file.deleteOnExit();
+            ImageIO.write(sheet, "png", file);
+            return file.getAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the sprite atlas", e);
+        }
+    }
+}
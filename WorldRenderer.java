@@ -0,0 +1,152 @@
+import bagel.Image;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Draws a {@link GameWorld} to the window.
+ * This is the only place game objects are turned into images; the world itself
+ * never draws, so the simulation can also run headless.
+ * Sprites found in the {@link TextureAtlas} are queued on a {@link SpriteBatch} and
+ * submitted together; anything else is drawn from its own image.
+ * The background and platforms (and, on ladder-heavy levels, landed ladders) come from a
+ * pre-rendered {@link StaticLayer}.
+ */
+public class WorldRenderer {
+    private final StaticLayer staticLayer;
+    // Sprites this renderer has acquired from {@link Assets}, by path
+    private final Map<String, Image> images = new HashMap<>();
+    private final TextureAtlas atlas;
+    private final SpriteBatch batch;
+
+    /**
+     * Creates a renderer for a level whose static layer may already be prepared.
+     *
+     * @param staticLayer The level's background, platforms and ladders.
+     * @param atlas       Atlas holding the game's sprites.
+     */
+    public WorldRenderer(StaticLayer staticLayer, TextureAtlas atlas) {
+        this.staticLayer = staticLayer;
+        this.atlas = atlas;
+        this.batch = new SpriteBatch(atlas, 256);
+    }
+
+    /**
+     * Tells the renderer the world was restored from a snapshot, so cached drawing is checked against it.
+     */
+    public void restored(GameWorld world) {
+        staticLayer.restored(world);
+    }
+
+    /**
+     * Releases every image this renderer acquired. The renderer must not be used afterwards.
+     */
+    public void dispose() {
+        staticLayer.dispose();
+        for (String path : images.keySet()) {
+            Assets.releaseImage(path);
+        }
+        images.clear();
+    }
+
+    /**
+     * Draws every visible object in the world, back to front.
+     * Moving objects are drawn between their positions at the start and end of the last tick.
+     *
+     * @param world The world to draw.
+     * @param alpha How far the display is through the next tick, from 0 (start) to 1 (end).
+     */
+    public void draw(GameWorld world, double alpha) {
+        // 1) Background and platforms, plus the ladders if they have been baked in
+        long t = PhaseTimers.start();
+        staticLayer.draw(world);
+        t = PhaseTimers.lap(PhaseTimers.Phase.STATIC_LAYER, t);
+
+        // 2) Ladders not baked into the layer
+        if (!staticLayer.hasLadders()) {
+            for (Ladder ladder : world.getLadders()) {
+                sprite(ladder.getImagePath(), ladder.getX(), ladder.getRenderY(alpha));
+            }
+        }
+
+        // 3) Barrels
+        Barrels barrels = world.getBarrels();
+        for (int i = 0; i < barrels.size(); i++) {
+            if (!barrels.isDestroyed(i)) {
+                sprite(barrels.getImagePath(), barrels.getRenderX(i, alpha), barrels.getRenderY(i, alpha));
+            }
+        }
+
+        // 4) Hammers
+        for (Hammer hammer : world.getHammers()) {
+            if (!hammer.isCollected()) {
+                sprite(hammer.getImagePath(), hammer.getX(), hammer.getY());
+            }
+        }
+
+        // 5) Blasters
+        for (Blaster blaster : world.getBlasters()) {
+            if (!blaster.isCollected()) {
+                sprite(blaster.getImagePath(), blaster.getX(), blaster.getY());
+            }
+        }
+
+        // 6) Donkey
+        Donkey donkey = world.getDonkey();
+        sprite(donkey.getImagePath(), donkey.getX(), donkey.getRenderY(alpha));
+
+        // 7) Monkeys and their bananas
+        for (Monkey monkey : world.getMonkeys()) {
+            if (!monkey.isDead()) {
+                spriteFromTopLeft(monkey.getImagePath(), monkey.getRenderX(alpha), monkey.getRenderY(alpha));
+            }
+        }
+        Bananas bananas = world.getBananas();
+        for (int i = 0; i < bananas.size(); i++) {
+            sprite(bananas.getImagePath(), bananas.getRenderX(i, alpha), bananas.getRenderY(i, alpha));
+        }
+
+        // 8) Bullets
+        Bullets bullets = world.getBullets();
+        for (int i = 0; i < bullets.size(); i++) {
+            sprite(bullets.getImagePath(i), bullets.getRenderX(i, alpha), bullets.getRenderY(i, alpha));
+        }
+
+        // 9) Mario
+        Mario mario = world.getMario();
+        sprite(mario.getImagePath(), mario.getRenderX(alpha), mario.getRenderY(alpha));
+        batch.flush();
+        PhaseTimers.lap(PhaseTimers.Phase.SPRITES, t);
+    }
+
+    // Queues a sprite centred on (x, y)
+    private void sprite(String path, double x, double y) {
+        int region = atlas.findRegion(path);
+        if (region >= 0) {
+            batch.add(region, x, y);
+        } else {
+            batch.flush(); // keep the draw order
+            image(path).draw(x, y);
+        }
+    }
+
+    // Queues a sprite with its top-left corner at (x, y)
+    private void spriteFromTopLeft(String path, double x, double y) {
+        int region = atlas.findRegion(path);
+        if (region >= 0) {
+            batch.addFromTopLeft(region, x, y);
+        } else {
+            batch.flush();
+            image(path).drawFromTopLeft(x, y);
+        }
+    }
+
+    // Acquires each sprite missing from the atlas once and reuses it for every object that shares it
+    private Image image(String path) {
+        Image image = images.get(path);
+        if (image == null) {
+            image = Assets.acquireImage(path);
+            images.put(path, image);
+        }
+        return image;
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+
+/**
+ * Builds the game objects the benchmarks run on, scaled up from the shipped levels.
+ * JMH does not accept benchmarks in the default package and the game lives there,
+ * so the benchmarks look these factories up by name once and then call the hot path
+ * through a plain JDK functional interface. Every factory is seeded, so each run
+ * measures exactly the same objects.
+ */
+public class BenchFixtures {
+    private static final long SEED = 42;
+    private static final Properties GAME_PROPS = IOUtils.readPropertiesFile("res/app.properties");
+
+    // Ticks a monkey gets to fall onto its platform before it is measured
+    private static final int SETTLE_TICKS = 200;
+    // Extra objects are kept this far from Mario's start, so a scaled level is not over in a few ticks
+    private static final double CLEAR_OF_MARIO = 200;
+    // World size for generated levels: 8 by 4 screens
+    private static final int STRESS_WIDTH = 8192;
+    private static final int STRESS_HEIGHT = 3072;
+
+    private BenchFixtures() {
+    }
+
+    /**
+     * Returns the shipped level 2, which has every kind of object, with extra barrels and monkeys
+     * copied from its own at random x positions along the same platforms, away from Mario's start.
+     *
+     * @param extra Number of barrels and monkeys to add; 0 gives the shipped level.
+     */
+    public static LevelConfig scaledLevel(int extra) {
+        LevelConfig base = LevelConfig.load(GAME_PROPS, 2);
+        Random random = new Random(SEED);
+        List<LevelConfig.Position> barrels = new ArrayList<>(base.getBarrels());
+        List<LevelConfig.MonkeyConfig> normal = new ArrayList<>(base.getNormalMonkeys());
+        List<LevelConfig.MonkeyConfig> intelligent = new ArrayList<>(base.getIntelligentMonkeys());
+
+        for (int i = 0; i < extra; i++) {
+            double x;
+            do {
+                x = random.nextDouble() * base.getWidth();
+            } while (Math.abs(x - base.getMario().x()) < CLEAR_OF_MARIO);
+            switch (i % 3) {
+                case 0 -> {
+                    LevelConfig.Position source = base.getBarrels().get(i % base.getBarrels().size());
+                    barrels.add(new LevelConfig.Position(x, source.y()));
+                }
+                case 1 -> normal.add(copyMonkey(base.getNormalMonkeys(), i, x));
+                default -> intelligent.add(copyMonkey(base.getIntelligentMonkeys(), i, x));
+            }
+        }
+        return new LevelConfig(base.getLevel(), base.getWidth(), base.getHeight(), base.getMaxFrames(),
+                base.getMario(), base.getDonkey(), base.getPlatforms(), base.getLadders(), barrels,
+                base.getHammers(), base.getBlasters(), normal, intelligent);
+    }
+
+    /**
+     * Returns one tick of a scaled level. When the level ends it is rebuilt, so the tick
+     * can be called any number of times.
+     *
+     * @param extra Number of barrels and monkeys added to the shipped level.
+     * @return A tick taking {@link Controls} flags and returning whether the level ended.
+     */
+    public static IntPredicate tick(int extra) {
+        return ticking(scaledLevel(extra));
+    }
+
+    /**
+     * Returns one tick of a level from {@link StressLevelGenerator}, rebuilt whenever it ends.
+     *
+     * @param objects Number of generated ladders, barrels, monkeys, hammers and blasters.
+     * @return A tick taking {@link Controls} flags and returning whether the level ended.
+     */
+    public static IntPredicate stressTick(int objects) {
+        return ticking(StressLevelGenerator.generate(1, SEED, objects, STRESS_WIDTH, STRESS_HEIGHT, 10000));
+    }
+
+    private static IntPredicate ticking(LevelConfig level) {
+        GameWorld[] world = {new GameWorld(level, 0)};
+        return buttons -> {
+            boolean ended = world[0].tick(buttons);
+            if (ended) {
+                world[0] = new GameWorld(level, 0);
+            }
+            return ended;
+        };
+    }
+
+    /**
+     * Returns {@link Mario#handleLadders(int, Ladder[])} over the shipped ladders copied to {@code count}.
+     */
+    public static IntPredicate ladders(int count) {
+        GameWorld world = new GameWorld(scaledLevel(0), 0);
+        Ladder[] shipped = world.getLadders();
+        Random random = new Random(SEED);
+        Ladder[] ladders = new Ladder[count];
+        for (int i = 0; i < count; i++) {
+            ladders[i] = new Ladder(random.nextDouble() * world.getWidth(), shipped[i % shipped.length].getY());
+        }
+        Mario mario = world.getMario();
+        return buttons -> mario.handleLadders(buttons, ladders);
+    }
+
+    /**
+     * Returns {@link Mario#handlePlatforms(PlatformIndex)} over the shipped platforms copied to {@code count}.
+     */
+    public static BooleanSupplier platforms(int count) {
+        GameWorld world = new GameWorld(scaledLevel(0), 0);
+        PlatformIndex index = new PlatformIndex(scatter(world.getPlatforms(), count, world.getWidth()));
+        Mario mario = world.getMario();
+        return () -> mario.handlePlatforms(index);
+    }
+
+    /**
+     * Returns {@link Monkey#move(PlatformIndex)} for {@code count} monkeys that have already landed.
+     */
+    public static Runnable monkeys(int count) {
+        LevelConfig level = scaledLevel(count);
+        PlatformIndex index = new PlatformIndex(new GameWorld(level, 0).getPlatforms());
+        List<Monkey> monkeys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<LevelConfig.MonkeyConfig> configs = level.getNormalMonkeys();
+            monkeys.add(new NormalMonkey(configs.get(i % configs.size())));
+        }
+        for (int t = 0; t < SETTLE_TICKS; t++) {
+            for (Monkey monkey : monkeys) {
+                monkey.update(index);
+            }
+        }
+        return () -> {
+            for (Monkey monkey : monkeys) {
+                monkey.move(index);
+            }
+        };
+    }
+
+    /**
+     * Returns the bullet vs monkey pass of a tick, with a full bullet pool spread over
+     * a level that has {@code extra} more barrels and monkeys. Bullets that hit are removed
+     * on the first call, so later calls measure the broadphase queries of bullets that miss.
+     *
+     * @return The pass, returning the number of bullets left.
+     */
+    public static IntSupplier bulletHits(int extra) {
+        GameWorld world = new GameWorld(scaledLevel(extra), 0);
+        world.tick(Controls.NONE);
+        Random random = new Random(SEED);
+        Bullets bullets = world.getBullets();
+        List<Monkey> monkeys = world.getMonkeys();
+        for (int i = 0; i < bullets.getCapacity(); i++) {
+            double y = monkeys.get(i % monkeys.size()).getY();
+            bullets.spawn(random.nextDouble() * world.getWidth(), y, random.nextBoolean());
+        }
+        return () -> {
+            world.resolveBulletHits();
+            return bullets.size();
+        };
+    }
+
+    private static LevelConfig.MonkeyConfig copyMonkey(List<LevelConfig.MonkeyConfig> shipped, int i, double x) {
+        LevelConfig.MonkeyConfig source = shipped.get(i % shipped.size());
+        return new LevelConfig.MonkeyConfig(new LevelConfig.Position(x, source.position().y()),
+                source.movingRight(), source.route());
+    }
+
+    private static Platform[] scatter(Platform[] shipped, int count, double width) {
+        Random random = new Random(SEED);
+        Platform[] platforms = new Platform[count];
+        for (int i = 0; i < count; i++) {
+            platforms[i] = new Platform(random.nextDouble() * width, shipped[i % shipped.length].getY());
+        }
+        return platforms;
+    }
+}
@@ -0,0 +1,33 @@
+package bench;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Looks up the game-side factories in {@code BenchFixtures}.
+ * The game classes are in the default package, which a named package cannot import,
+ * so each factory is found by reflection once, in a benchmark's setup, and never on the measured path.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Calls a {@code BenchFixtures} factory that takes a single size.
+     *
+     * @param factory Name of the factory method, e.g. "tick".
+     * @param type    The functional interface it returns.
+     * @param size    Entity count to pass to it.
+     * @return The fixture.
+     */
+    static <T> T create(String factory, Class<T> type, int size) {
+        try {
+            Object fixture = Class.forName("BenchFixtures").getMethod(factory, int.class).invoke(null, size);
+            return type.cast(fixture);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Fixture " + factory + "(" + size + ") failed", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Fixture " + factory + " not found; is bench/src on the class path?", e);
+        }
+    }
+}
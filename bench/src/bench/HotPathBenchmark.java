@@ -0,0 +1,70 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-tick hot paths on their own, each over {@code count} objects:
+ * Mario against ladders and platforms, monkeys walking their routes,
+ * and the bullet vs monkey pass. One operation is one call for Mario and one pass
+ * over every object for the rest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathBenchmark {
+    // UP is held, so Mario tries to climb any ladder he touches
+    private static final int UP = 1 << 2;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int count;
+
+    private IntPredicate ladders;
+    private BooleanSupplier platforms;
+    private Runnable monkeys;
+    private IntSupplier bulletHits;
+
+    @Setup
+    public void setUp() {
+        ladders = Fixtures.create("ladders", IntPredicate.class, count);
+        platforms = Fixtures.create("platforms", BooleanSupplier.class, count);
+        monkeys = Fixtures.create("monkeys", Runnable.class, count);
+        bulletHits = Fixtures.create("bulletHits", IntSupplier.class, count);
+    }
+
+    @Benchmark
+    public boolean marioHandleLadders() {
+        return ladders.test(UP);
+    }
+
+    @Benchmark
+    public boolean marioHandlePlatforms() {
+        return platforms.getAsBoolean();
+    }
+
+    @Benchmark
+    public void monkeyMove() {
+        monkeys.run();
+    }
+
+    @Benchmark
+    public int bulletsVsMonkeys() {
+        return bulletHits.getAsInt();
+    }
+}
@@ -0,0 +1,43 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one whole simulation tick on a level from {@code StressLevelGenerator},
+ * 8 by 4 screens with 1k to 100k objects. One operation is one tick, as in {@link TickBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StressTickBenchmark {
+    // Generated ladders, barrels, monkeys, hammers and blasters
+    @Param({"1000", "10000", "100000"})
+    public int objects;
+
+    private IntPredicate tick;
+
+    @Setup
+    public void setUp() {
+        tick = Fixtures.create("stressTick", IntPredicate.class, objects);
+    }
+
+    @Benchmark
+    public boolean idle() {
+        return tick.test(0);
+    }
+}
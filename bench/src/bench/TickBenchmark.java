@@ -0,0 +1,46 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one whole simulation tick, the work {@code GamePlayScreen.tick()} does per tick,
+ * on level 2 with extra barrels and monkeys. One operation is one tick, so the scores
+ * read as ns/tick and, with the GC profiler, bytes/tick.
+ * When the level ends it is rebuilt inside the measured call; that happens
+ * at most once per level length, so it barely moves the average.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+    // Barrels and monkeys added to the shipped level; 0 is the level as shipped
+    @Param({"0", "100", "1000", "10000"})
+    public int extraEntities;
+
+    private IntPredicate tick;
+
+    @Setup
+    public void setUp() {
+        tick = Fixtures.create("tick", IntPredicate.class, extraEntities);
+    }
+
+    @Benchmark
+    public boolean idle() {
+        return tick.test(0);
+    }
+}